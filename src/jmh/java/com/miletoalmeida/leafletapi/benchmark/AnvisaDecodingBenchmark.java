@@ -0,0 +1,72 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaResponseDecoder;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificação das respostas de busca e de bula, entregues em buffers de 8 KB como
+ * chegam da rede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnvisaDecodingBenchmark {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final String DETAILS_URL = "https://consultas.anvisa.gov.br#/medicamento/%s";
+
+    private AnvisaResponseDecoder decoder;
+    private byte[][] searchPage;
+    private byte[][] leaflet;
+
+    @Setup
+    public void setUp() {
+        decoder = new AnvisaResponseDecoder(new ObjectMapper(), new AnvisaProperties());
+        searchPage = chunks(Fixtures.bytes(Fixtures.SEARCH_PAGE));
+        leaflet = chunks(Fixtures.bytes(Fixtures.LEAFLET));
+    }
+
+    @Benchmark
+    public AnvisaSearchPage decodeSearchPage() {
+        return decoder.decodeSearchPage(buffers(searchPage), 1, 20, DETAILS_URL).block();
+    }
+
+    @Benchmark
+    public LeafletDTO decodeLeaflet() {
+        return decoder.decodeLeaflet(buffers(leaflet)).block();
+    }
+
+    private static Flux<DataBuffer> buffers(byte[][] chunks) {
+        return Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+
+    private static byte[][] chunks(byte[] body) {
+        byte[][] chunks = new byte[(body.length + BUFFER_SIZE - 1) / BUFFER_SIZE][];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = Arrays.copyOfRange(body, i * BUFFER_SIZE, Math.min(body.length, (i + 1) * BUFFER_SIZE));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,109 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.config.TieredCacheProperties;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaResponseDecoder;
+import com.miletoalmeida.leafletapi.util.ApiUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras e escritas no nível local do cache, configurado como o TieredCacheManager
+ * configura cada cache.
+ *
+ * {@code getHit} lê chaves que cabem no cache. {@code put} e {@code getOrLoad} giram
+ * por dez vezes mais chaves do que o limite, forçando despejos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CaffeineCacheBenchmark {
+
+    private Cache<Object, Object> cache;
+    private String[] hotKeys;
+    private String[] keys;
+    private List<MedicineDTO> medicines;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int length) {
+            next = next + 1 == length ? 0 : next + 1;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        TieredCacheProperties properties = new TieredCacheProperties();
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.ttlFor("medicines"))
+                .maximumSize(properties.getMaximumSize())
+                .build();
+
+        medicines = new AnvisaResponseDecoder(new ObjectMapper(), new AnvisaProperties())
+                .decodeSearchPage(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                        Fixtures.bytes(Fixtures.SEARCH_PAGE))), 1, 20, "%s")
+                .block()
+                .getContent();
+
+        int maximumSize = (int) properties.getMaximumSize();
+        hotKeys = keys(maximumSize / 2);
+        keys = keys(maximumSize * 10);
+        for (int i = 0; i < hotKeys.length; i++) {
+            cache.put(hotKeys[i], medicine(i));
+        }
+    }
+
+    @Benchmark
+    public Object getHit(Cursor cursor) {
+        return cache.getIfPresent(hotKeys[cursor.next(hotKeys.length)]);
+    }
+
+    @Benchmark
+    public void put(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        cache.put(keys[index], medicine(index));
+    }
+
+    @Benchmark
+    public Object getOrLoad(Cursor cursor) {
+        int index = cursor.next(keys.length);
+        return cache.get(keys[index], key -> medicine(index));
+    }
+
+    private MedicineDTO medicine(int index) {
+        return medicines.get(index % medicines.size());
+    }
+
+    private String[] keys(int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ApiUtils.generateCacheKey("medicine", medicine(i).getRegistryNumber() + " " + i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,33 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lê as respostas gravadas da Anvisa em {@code src/test/resources/fixtures/anvisa}.
+ */
+final class Fixtures {
+
+    static final String SEARCH_PAGE = "consulta-medicamentos-dipirona.json";
+    static final String LEAFLET = "bulario-dipirona.json";
+
+    private Fixtures() {
+    }
+
+    static byte[] bytes(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/anvisa/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture não encontrada: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String text(String name) {
+        return new String(bytes(name), StandardCharsets.UTF_8);
+    }
+}
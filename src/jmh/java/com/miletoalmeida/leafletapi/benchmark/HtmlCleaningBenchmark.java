@@ -0,0 +1,59 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import com.miletoalmeida.leafletapi.service.scraping.LeafletHtmlSanitizer;
+import com.miletoalmeida.leafletapi.util.ScrapingUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limpeza do HTML das bulas. {@code jsoupDom} é o caminho anterior ao
+ * {@link LeafletHtmlSanitizer}, mantido como referência.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlCleaningBenchmark {
+
+    @Param({"bula-paciente-dipirona.html", "bula-profissional-amoxicilina.html", "bula-paciente-losartana.html"})
+    public String fixture;
+
+    private String html;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.text(fixture);
+    }
+
+    @Benchmark
+    public String sanitizer() {
+        return LeafletHtmlSanitizer.sanitize(html);
+    }
+
+    @Benchmark
+    public String jsoupDom() {
+        Document doc = Jsoup.parse(html);
+        doc.select("script, style").remove();
+        return doc.body().html();
+    }
+
+    @Benchmark
+    public String scrapingUtilsCleanHtml() {
+        return ScrapingUtils.cleanHtml(html);
+    }
+}
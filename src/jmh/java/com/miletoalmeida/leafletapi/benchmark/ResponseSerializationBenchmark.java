@@ -0,0 +1,76 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.dto.ResponseDTO;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaResponseDecoder;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import com.miletoalmeida.leafletapi.service.scraping.LeafletHtmlSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização em JSON das respostas da API, com o mesmo {@link ObjectMapper} que o
+ * Spring monta para os controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ResponseDTO<List<MedicineDTO>> searchResponse;
+    private ResponseDTO<LeafletDTO> leafletResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        AnvisaResponseDecoder decoder = new AnvisaResponseDecoder(objectMapper, new AnvisaProperties());
+
+        AnvisaSearchPage page = decoder.decodeSearchPage(body(Fixtures.SEARCH_PAGE), 1, 20, "%s").block();
+        page.getContent().forEach(medicine -> medicine.setLastUpdated(LocalDateTime.now()));
+        searchResponse = ResponseDTO.success(page.getContent());
+        searchResponse.setMetadata(page.getPage(), page.getContent().size(), page.getTotalElements(), page.getTotalPages());
+
+        LeafletDTO leaflet = decoder.decodeLeaflet(body(Fixtures.LEAFLET)).block();
+        leaflet.setPatientLeaflet(LeafletHtmlSanitizer.sanitize(leaflet.getPatientLeaflet()));
+        leaflet.setProfessionalLeaflet(LeafletHtmlSanitizer.sanitize(leaflet.getProfessionalLeaflet()));
+        leafletResponse = ResponseDTO.success(leaflet);
+    }
+
+    @Benchmark
+    public byte[] searchResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(searchResponse);
+    }
+
+    @Benchmark
+    public byte[] leafletResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(leafletResponse);
+    }
+
+    private static Flux<DataBuffer> body(String fixture) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(Fixtures.bytes(fixture)));
+    }
+}
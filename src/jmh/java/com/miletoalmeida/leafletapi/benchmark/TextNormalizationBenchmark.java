@@ -0,0 +1,105 @@
+package com.miletoalmeida.leafletapi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.util.ApiUtils;
+import com.miletoalmeida.leafletapi.util.ScrapingUtils;
+import com.miletoalmeida.leafletapi.util.TextNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto e geração de chaves de cache sobre os nomes, princípios ativos
+ * e empresas de uma página de busca real. Cada operação percorre a página inteira.
+ *
+ * Os métodos "legacy" reproduzem as cadeias de regex anteriores ao {@link TextNormalizer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextNormalizationBenchmark {
+
+    private static final Pattern LEGACY_SPECIAL_CHARS = Pattern.compile("[^a-zA-Z0-9\\s]");
+
+    private List<String> texts;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonNode page = new ObjectMapper().readTree(Fixtures.bytes(Fixtures.SEARCH_PAGE));
+
+        texts = new ArrayList<>();
+        for (JsonNode medicine : page.path("content")) {
+            texts.add(medicine.path("nomeProduto").asText());
+            texts.add(medicine.path("principioAtivo").asText());
+            texts.add(medicine.path("razaoSocial").asText());
+        }
+    }
+
+    @Benchmark
+    public void normalizeText(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(ScrapingUtils.normalizeText(text));
+        }
+    }
+
+    @Benchmark
+    public void cleanWhitespace(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(ScrapingUtils.cleanWhitespace(text));
+        }
+    }
+
+    @Benchmark
+    public void generateCacheKey(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(ApiUtils.generateCacheKey("search", text));
+        }
+    }
+
+    @Benchmark
+    public void tokens(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(TextNormalizer.tokens(text));
+        }
+    }
+
+    @Benchmark
+    public void legacyNormalizeText(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(text.replaceAll("[áàãâä]", "a")
+                    .replaceAll("[éèêë]", "e")
+                    .replaceAll("[íìîï]", "i")
+                    .replaceAll("[óòõôö]", "o")
+                    .replaceAll("[úùûü]", "u")
+                    .replaceAll("[ç]", "c")
+                    .transform(str -> LEGACY_SPECIAL_CHARS.matcher(str).replaceAll(""))
+                    .trim()
+                    .toLowerCase());
+        }
+    }
+
+    @Benchmark
+    public void legacyGenerateCacheKey(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume("search_" + text.toLowerCase().replaceAll("\\s+", "_"));
+        }
+    }
+}
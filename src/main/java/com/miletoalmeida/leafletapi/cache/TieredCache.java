@@ -0,0 +1,152 @@
+package com.miletoalmeida.leafletapi.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.miletoalmeida.leafletapi.service.CacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache em duas camadas: Caffeine em memória (L1) sobre a tabela CacheEntry (L2).
+ *
+ * Falhas na camada persistente são registradas e tratadas como miss, para que o
+ * banco nunca derrube o caminho de leitura.
+ */
+@Slf4j
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> localCache;
+    private final CacheService cacheService;
+    private final JavaType valueType;
+    private final Duration ttl;
+
+    /**
+     * @param valueType Tipo usado para desserializar a L2; {@code null} mantém o cache apenas em memória
+     */
+    public TieredCache(String name, Cache<Object, Object> localCache, CacheService cacheService,
+                       JavaType valueType, Duration ttl) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.cacheService = cacheService;
+        this.valueType = valueType;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        Optional<Object> stored = readThrough(key);
+        stored.ifPresent(storedValue -> localCache.put(key, storedValue));
+        return stored.orElse(null);
+    }
+
+    /**
+     * O loader roda fora de qualquer lock do Caffeine: {@code Cache.get(key, fn)} executa a
+     * função dentro de um bloco synchronized do ConcurrentHashMap, o que prenderia (pinning)
+     * uma thread virtual durante toda a chamada à Anvisa. O agrupamento de chamadas
+     * concorrentes fica a cargo do RequestCoalescingService.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Consulta apenas a camada em memória, sem acessar o banco.
+     *
+     * @return o valor em L1, ou {@code null} se ausente
+     */
+    public ValueWrapper getLocal(Object key) {
+        Object value = localCache.getIfPresent(key);
+        return toValueWrapper(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        localCache.put(key, toStoreValue(value));
+
+        if (value != null && isPersistent()) {
+            try {
+                cacheService.saveToCache(String.valueOf(key), name, value, ttl.toMinutes());
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar cache persistente {} [{}]: {}", name, key, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        localCache.invalidate(key);
+
+        if (isPersistent()) {
+            try {
+                cacheService.invalidateCache(String.valueOf(key), name);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao invalidar cache persistente {} [{}]: {}", name, key, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+
+        if (isPersistent()) {
+            try {
+                cacheService.invalidateAll(name);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao limpar cache persistente {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private Optional<Object> readThrough(Object key) {
+        if (!isPersistent()) {
+            return Optional.empty();
+        }
+
+        try {
+            return cacheService.getFromCache(String.valueOf(key), name, valueType);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao ler cache persistente {} [{}]: {}", name, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPersistent() {
+        return cacheService != null && valueType != null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.miletoalmeida.leafletapi.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miletoalmeida.leafletapi.config.TieredCacheProperties;
+import com.miletoalmeida.leafletapi.service.CacheService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CacheManager que cria um {@link TieredCache} por nome de cache.
+ *
+ * Apenas caches com tipo de valor registrado usam a camada persistente; os demais
+ * ficam somente em memória.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final TieredCacheProperties properties;
+    private final CacheService cacheService;
+    private final Map<String, JavaType> valueTypes = new ConcurrentHashMap<>();
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(TieredCacheProperties properties, CacheService cacheService) {
+        this.properties = properties;
+        this.cacheService = cacheService;
+    }
+
+    public void registerValueType(String cacheName, JavaType valueType) {
+        valueTypes.put(cacheName, valueType);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private Cache createCache(String name) {
+        Duration ttl = properties.ttlFor(name);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(properties.getMaximumSize())
+                .build();
+
+        JavaType valueType = properties.isPersistent() ? valueTypes.get(name) : null;
+        return new TieredCache(name, localCache, cacheService, valueType, ttl);
+    }
+}
@@ -0,0 +1,389 @@
+package com.miletoalmeida.leafletapi.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.TieredCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grava entradas da tabela CacheEntry em segundo plano (write-behind).
+ *
+ * Escritas são serializadas ao entrar numa fila limitada indexada por tipo e chave, de
+ * modo que alterações posteriores no objeto não afetam o que é gravado; uma nova escrita
+ * para uma chave ainda pendente apenas substitui o valor. Uma thread dedicada grava a
+ * fila em lotes JDBC (UPDATE e, para as chaves inexistentes, INSERT) a cada
+ * {@code flushInterval} ou quando um lote enche.
+ *
+ * Com a fila cheia, quem escreve espera até {@code offerTimeout} e então grava na
+ * própria thread. Descartes esperam o lote em gravação e retiram a chave dos lotes ainda
+ * não gravados, então uma invalidação nunca é seguida pela gravação do valor antigo.
+ * Usa {@link ReentrantLock} em vez de synchronized para não prender
+ * threads virtuais enquanto esperam.
+ */
+@Slf4j
+@Component
+public class WriteBehindCacheWriter {
+
+    private static final String UPDATE_SQL =
+            "UPDATE cache_entry SET cache_value = ?, expires_at = ? WHERE cache_key = ? AND type = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_entry (cache_key, type, cache_value, created_at, expires_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TieredCacheProperties.WriteBehind properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final Map<String, PendingWrite> flushing = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // Serializa as gravações no banco entre a thread de flush, o fallback síncrono e os descartes.
+    // Quando os dois são necessários, writeLock é adquirido antes de lock.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Counter coalesced;
+    private final Counter flushed;
+    private final Counter synchronous;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public WriteBehindCacheWriter(JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  TieredCacheProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties.getWriteBehind();
+        this.meterRegistry = meterRegistry;
+
+        this.coalesced = Counter.builder("cache.write_behind.coalesced")
+                .description("Escritas substituídas por uma escrita mais nova da mesma chave")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("cache.write_behind.flushed")
+                .description("Entradas gravadas em lote")
+                .register(meterRegistry);
+        this.synchronous = Counter.builder("cache.write_behind.synchronous")
+                .description("Escritas gravadas na thread chamadora por fila cheia")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("cache.write_behind.flush")
+                .description("Tempo de gravação de cada lote")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("cache.write_behind.pending", this, WriteBehindCacheWriter::pendingCount)
+                .description("Chaves aguardando gravação")
+                .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().daemon().name("cache-write-behind").start(this::flushLoop);
+    }
+
+    /**
+     * Grava o que estiver pendente antes de encerrar.
+     */
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Serializa o valor e enfileira a escrita, substituindo uma escrita pendente da mesma chave.
+     */
+    public void enqueue(String key, String type, Object value, LocalDateTime expiresAt) {
+        String serializedValue;
+        try {
+            serializedValue = objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar entrada de cache {}:{}: {}", type, key, e.getMessage());
+            return;
+        }
+
+        String pendingKey = pendingKey(key, type);
+        PendingWrite write = new PendingWrite(key, type, serializedValue, expiresAt);
+
+        lock.lock();
+        try {
+            if (pending.containsKey(pendingKey)) {
+                pending.put(pendingKey, write);
+                coalesced.increment();
+                return;
+            }
+
+            long remaining = properties.getOfferTimeout().toNanos();
+            while (pending.size() >= properties.getCapacity() && remaining > 0) {
+                try {
+                    remaining = notFull.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            if (pending.size() < properties.getCapacity()) {
+                pending.put(pendingKey, write);
+                if (pending.size() >= properties.getBatchSize()) {
+                    notEmpty.signal();
+                }
+                return;
+            }
+
+            // Registrada como em gravação para que um descarte concorrente a retire do lote
+            flushing.put(pendingKey, write);
+        } finally {
+            lock.unlock();
+        }
+
+        // Fila cheia: o chamador absorve a gravação, limitando a taxa de quem escreve
+        synchronous.increment();
+        writeDrained(List.of(write));
+    }
+
+    /**
+     * Valor serializado ainda não gravado para a chave, se houver, para que leituras
+     * vejam a última escrita mesmo antes do flush.
+     */
+    public Optional<String> getPending(String key, String type) {
+        lock.lock();
+        try {
+            String pendingKey = pendingKey(key, type);
+            PendingWrite write = pending.getOrDefault(pendingKey, flushing.get(pendingKey));
+            return write != null ? Optional.of(write.serializedValue()) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta a escrita pendente da chave. Se ela já estiver sendo gravada, espera o
+     * lote terminar, de modo que uma remoção feita em seguida no banco prevalece.
+     */
+    public void discard(String key, String type) {
+        writeLock.lock();
+        lock.lock();
+        try {
+            flushing.remove(pendingKey(key, type));
+            if (pending.remove(pendingKey(key, type)) != null) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Descarta todas as escritas pendentes do tipo, esperando um lote em gravação como
+     * {@link #discard}.
+     */
+    public void discardAll(String type) {
+        writeLock.lock();
+        lock.lock();
+        try {
+            flushing.values().removeIf(write -> write.type().equals(type));
+            if (pending.values().removeIf(write -> write.type().equals(type))) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                List<PendingWrite> batch = awaitBatch();
+                if (!batch.isEmpty()) {
+                    writeDrained(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar lote do cache persistente: {}", e.getMessage());
+            }
+        }
+    }
+
+    private List<PendingWrite> awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            if (pending.size() < properties.getBatchSize()) {
+                notEmpty.await(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return drain(properties.getBatchSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushAll() {
+        List<PendingWrite> batch;
+        do {
+            lock.lock();
+            try {
+                batch = drain(properties.getBatchSize());
+            } finally {
+                lock.unlock();
+            }
+            if (!batch.isEmpty()) {
+                writeDrained(batch);
+            }
+        } while (!batch.isEmpty());
+    }
+
+    /**
+     * Move até {@code max} escritas da fila para {@code flushing}, na ordem de chegada.
+     * Deve ser chamado com o lock.
+     */
+    private List<PendingWrite> drain(int max) {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(max, pending.size()));
+        Iterator<Map.Entry<String, PendingWrite>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < max) {
+            Map.Entry<String, PendingWrite> entry = iterator.next();
+            batch.add(entry.getValue());
+            flushing.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        if (!batch.isEmpty()) {
+            notFull.signalAll();
+        }
+        return batch;
+    }
+
+    private void writeDrained(List<PendingWrite> batch) {
+        try {
+            write(batch);
+        } finally {
+            lock.lock();
+            try {
+                batch.forEach(write -> flushing.remove(pendingKey(write.key(), write.type()), write));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        writeLock.lock();
+        try {
+            List<Object[]> rows = currentRows(batch);
+            if (rows.isEmpty()) {
+                return;
+            }
+            flushTimer.record(() -> upsert(rows));
+            flushed.increment(rows.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Linhas das escritas do lote que ainda estão em {@code flushing}: as descartadas ou
+     * substituídas por uma escrita mais nova enquanto o lote esperava ficam de fora.
+     */
+    private List<Object[]> currentRows(List<PendingWrite> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        lock.lock();
+        try {
+            for (PendingWrite write : batch) {
+                if (flushing.get(pendingKey(write.key(), write.type())) == write) {
+                    rows.add(new Object[] {
+                            write.serializedValue(),
+                            Timestamp.valueOf(write.expiresAt()),
+                            write.key(),
+                            write.type()
+                    });
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return rows;
+    }
+
+    private void upsert(List<Object[]> rows) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] row = rows.get(i);
+                inserts.add(new Object[] {row[2], row[3], row[0], now, row[1]});
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String pendingKey(String key, String type) {
+        return type + ":" + key;
+    }
+
+    private record PendingWrite(String key, String type, String serializedValue, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.anvisa")
+public class AnvisaProperties {
+
+    /**
+     * Endereço da API da Anvisa. Testes de carga apontam para um servidor local que
+     * reproduz respostas gravadas.
+     */
+    private String baseUrl = "https://consultas.anvisa.gov.br";
+
+    private Pacing pacing = new Pacing();
+
+    private Search search = new Search();
+
+    /**
+     * Número máximo de consultas simultâneas à Anvisa em uma requisição em lote.
+     */
+    private int batchConcurrency = 4;
+
+    /**
+     * Tamanho máximo de uma resposta da Anvisa. As respostas são decodificadas em streaming,
+     * então este limite não corresponde a memória alocada.
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(32);
+
+    @Data
+    public static class Pacing {
+
+        /**
+         * Intervalo alvo entre requisições para o mesmo host quando a Anvisa está saudável.
+         */
+        private Duration minInterval = Duration.ofSeconds(1);
+
+        /**
+         * Intervalo máximo após sucessivas respostas 429/503.
+         */
+        private Duration maxInterval = Duration.ofSeconds(30);
+
+        /**
+         * Variação aleatória aplicada ao intervalo, como fração (0.5 = ±50%).
+         */
+        private double jitter = 0.5;
+
+        /**
+         * Fator de multiplicação do intervalo a cada resposta 429/503.
+         */
+        private double backoffMultiplier = 2.0;
+
+        /**
+         * Intervalo mínimo após uma resposta 429/503, mesmo quando o intervalo atual é zero.
+         */
+        private Duration minBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Fração da distância até o intervalo mínimo recuperada a cada resposta bem-sucedida.
+         */
+        private double recoveryFactor = 0.1;
+
+        /**
+         * Espera máxima na fila; acima disso a requisição falha com RATE_LIMIT_EXCEEDED.
+         */
+        private Duration maxQueueDelay = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Search {
+
+        /**
+         * Quantidade de itens por página na busca em streaming e tamanho padrão da busca paginada.
+         */
+        private int pageSize = 50;
+
+        /**
+         * Maior tamanho de página aceito na busca paginada.
+         */
+        private int maxPageSize = 100;
+
+        /**
+         * Limite de páginas percorridas por uma busca em streaming.
+         */
+        private int maxPages = 100;
+    }
+}
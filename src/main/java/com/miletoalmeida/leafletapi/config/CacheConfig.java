@@ -1,25 +1,44 @@
 package com.miletoalmeida.leafletapi.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.miletoalmeida.leafletapi.cache.TieredCacheManager;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.service.CacheService;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({TieredCacheProperties.class, RefreshProperties.class, PurgeProperties.class,
+        LeafletContentProperties.class})
 public class CacheConfig {
 
+    public static final String CACHE_MEDICINES = "medicines";
+    public static final String CACHE_MEDICINE_DETAILS = "medicine_details";
+    public static final String CACHE_LEAFLETS = "leaflets";
+    public static final String CACHE_MEDICINE_PAGES = "medicine_pages";
+    public static final String CACHE_LEAFLET_SECTIONS = "leaflet_sections";
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES)
-                .maximumSize(100)
-        );
+    public CacheManager cacheManager(TieredCacheProperties properties,
+                                     CacheService cacheService,
+                                     ObjectMapper objectMapper) {
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+
+        TieredCacheManager cacheManager = new TieredCacheManager(properties, cacheService);
+        cacheManager.registerValueType(CACHE_MEDICINES,
+                typeFactory.constructCollectionType(List.class, MedicineDTO.class));
+        cacheManager.registerValueType(CACHE_MEDICINE_DETAILS, typeFactory.constructType(MedicineDTO.class));
+        // "leaflets" e "leaflet_sections" ficam só em memória: as tabelas de bulas e seções já
+        // são a cópia persistente, e os textos são compartilhados por hash via LeafletContentStore
+        cacheManager.registerValueType(CACHE_MEDICINE_PAGES, typeFactory.constructType(AnvisaSearchPage.class));
         return cacheManager;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.crawler")
+public class CrawlerProperties {
+
+    /**
+     * Habilita o rastreamento do catálogo completo da Anvisa em segundo plano.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Quantidade de medicamentos pedida por página.
+     */
+    private int pageSize = 100;
+
+    /**
+     * Filtro de nome enviado à Anvisa; vazio percorre a listagem completa.
+     */
+    private String query = "";
+
+    /**
+     * Intervalo após um rastreamento completo antes de começar o próximo.
+     */
+    private Duration recrawlInterval = Duration.ofDays(7);
+
+    /**
+     * Frequência com que se verifica se o catálogo venceu ou se um rastreamento suspenso pode ser retomado.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+
+    /**
+     * Espera antes de tentar novamente uma página que falhou.
+     */
+    private Duration retryDelay = Duration.ofMinutes(1);
+
+    /**
+     * Falhas seguidas após as quais o rastreamento é suspenso até a próxima verificação.
+     */
+    private int maxConsecutiveFailures = 10;
+}
@@ -0,0 +1,23 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.leaflet.content")
+public class LeafletContentProperties {
+
+    /**
+     * Memória máxima ocupada pelos textos de bula em cache, indexados pelo hash do conteúdo.
+     */
+    private DataSize cacheMaximumSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Tempo mínimo desde a gravação ou o último reuso de um conteúdo sem referências antes
+     * de ser removido, para não remover um conteúdo cuja bula ainda não foi salva.
+     */
+    private Duration orphanGracePeriod = Duration.ofHours(1);
+}
@@ -0,0 +1,24 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.purge")
+public class PurgeProperties {
+
+    /**
+     * Habilita a remoção periódica de registros expirados.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Quantidade de linhas removidas por comando DELETE.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Limite de lotes por tabela em cada execução; o restante fica para a próxima.
+     */
+    private int maxChunksPerRun = 100;
+}
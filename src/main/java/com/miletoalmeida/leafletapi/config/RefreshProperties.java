@@ -0,0 +1,72 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.refresh")
+public class RefreshProperties {
+
+    /**
+     * Habilita refresh-ahead e stale-while-revalidate.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Janela antes da expiração em que uma entrada servida é atualizada em segundo plano.
+     */
+    private Duration aheadWindow = Duration.ofDays(1);
+
+    /**
+     * Tempo máximo após a expiração em que uma entrada ainda pode ser servida como stale.
+     */
+    private Duration maxStale = Duration.ofDays(30);
+
+    private Background background = new Background();
+
+    @Data
+    public static class Background {
+
+        /**
+         * Habilita a atualização periódica de registros perto da expiração.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Intervalo entre execuções do agendador de atualização.
+         */
+        private Duration interval = Duration.ofMinutes(1);
+
+        /**
+         * Antecedência em relação à expiração com que um registro passa a ser candidato.
+         */
+        private Duration lookahead = Duration.ofDays(2);
+
+        /**
+         * Só registros acessados dentro desta janela são atualizados.
+         */
+        private Duration accessWindow = Duration.ofDays(30);
+
+        /**
+         * Máximo de medicamentos buscados na Anvisa por execução.
+         */
+        private int medicineBudget = 5;
+
+        /**
+         * Máximo de bulas buscadas na Anvisa por execução.
+         */
+        private int leafletBudget = 5;
+
+        /**
+         * Tempo até tentar novamente um registro cuja atualização falhou.
+         */
+        private Duration failureBackoff = Duration.ofHours(1);
+
+        /**
+         * Intervalo entre gravações em lote das datas de último acesso.
+         */
+        private Duration accessFlushInterval = Duration.ofSeconds(30);
+    }
+}
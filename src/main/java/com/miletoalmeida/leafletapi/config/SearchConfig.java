@@ -0,0 +1,9 @@
+package com.miletoalmeida.leafletapi.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({SearchIndexProperties.class, CrawlerProperties.class})
+public class SearchConfig {
+}
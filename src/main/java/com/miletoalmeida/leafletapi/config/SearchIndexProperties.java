@@ -0,0 +1,39 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.search.index")
+public class SearchIndexProperties {
+
+    /**
+     * Habilita a busca local no índice em memória antes de consultar a Anvisa.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Quantidade mínima de resultados locais para responder sem consultar a Anvisa.
+     */
+    private int minLocalResults = 10;
+
+    /**
+     * Quantidade máxima de resultados retornados pela busca local.
+     */
+    private int maxResults = 50;
+
+    /**
+     * Distância de edição máxima aceita por termo na busca fuzzy.
+     */
+    private int maxEditDistance = 2;
+
+    /**
+     * Quantidade de sugestões pré-calculadas por prefixo no autocompletar.
+     */
+    private int suggestTopK = 10;
+
+    /**
+     * Tamanho do lote de leitura do banco ao construir o índice na inicialização.
+     */
+    private int bootstrapBatchSize = 1000;
+}
@@ -0,0 +1,68 @@
+package com.miletoalmeida.leafletapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "leafletapi.cache")
+public class TieredCacheProperties {
+
+    /**
+     * Habilita a camada persistente (L2) baseada na tabela CacheEntry.
+     */
+    private boolean persistent = true;
+
+    /**
+     * Número máximo de entradas por cache em memória (L1).
+     */
+    private long maximumSize = 100;
+
+    /**
+     * TTL usado para caches sem configuração específica.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(60);
+
+    /**
+     * TTL por nome de cache, aplicado nas duas camadas.
+     */
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    public Duration ttlFor(String cacheName) {
+        return ttl.getOrDefault(cacheName, defaultTtl);
+    }
+
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * Grava a L2 em segundo plano, em lotes, em vez de na thread da requisição.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Intervalo máximo entre gravações de lotes.
+         */
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        /**
+         * Quantidade máxima de entradas por lote JDBC.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Chaves distintas aguardando gravação; acima disso quem escreve espera.
+         */
+        private int capacity = 10_000;
+
+        /**
+         * Espera máxima por espaço na fila; depois disso a gravação é feita na própria thread.
+         */
+        private Duration offerTimeout = Duration.ofMillis(100);
+    }
+}
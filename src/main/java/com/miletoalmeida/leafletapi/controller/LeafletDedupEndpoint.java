@@ -0,0 +1,25 @@
+package com.miletoalmeida.leafletapi.controller;
+
+import com.miletoalmeida.leafletapi.service.LeafletContentStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relatório de deduplicação das bulas em {@code /actuator/leafletdedup}.
+ */
+@Component
+@Endpoint(id = "leafletdedup")
+public class LeafletDedupEndpoint {
+
+    private final LeafletContentStore contentStore;
+
+    public LeafletDedupEndpoint(LeafletContentStore contentStore) {
+        this.contentStore = contentStore;
+    }
+
+    @ReadOperation
+    public LeafletContentStore.LeafletDedupReport report() {
+        return contentStore.report();
+    }
+}
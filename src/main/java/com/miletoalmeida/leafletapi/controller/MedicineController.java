@@ -1,16 +1,35 @@
 package com.miletoalmeida.leafletapi.controller;
 
+import com.miletoalmeida.leafletapi.dto.BatchItemDTO;
+import com.miletoalmeida.leafletapi.dto.BatchRequestDTO;
 import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.LeafletPart;
+import com.miletoalmeida.leafletapi.dto.LeafletSectionDTO;
 import com.miletoalmeida.leafletapi.dto.ResponseDTO;
+import com.miletoalmeida.leafletapi.dto.ResourceVersion;
+import com.miletoalmeida.leafletapi.dto.ResponseMetadata;
+import com.miletoalmeida.leafletapi.exception.ResourceNotFoundException;
 import com.miletoalmeida.leafletapi.exception.ScrapingException;
 import com.miletoalmeida.leafletapi.dto.MedicineDTO;
 import com.miletoalmeida.leafletapi.service.LeafletService;
 import com.miletoalmeida.leafletapi.service.MedicineService;
+import com.miletoalmeida.leafletapi.service.RefreshAheadService;
+import com.miletoalmeida.leafletapi.service.scraping.LeafletSectionParser;
+import com.miletoalmeida.leafletapi.util.CompressionUtils;
+import com.miletoalmeida.leafletapi.util.ResponseBuilder;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,17 +39,34 @@ public class MedicineController {
 
     private final MedicineService medicineService;
     private final LeafletService leafletService;
+    private final RefreshAheadService refreshAheadService;
 
     @Autowired
-    public MedicineController(MedicineService medicineService, LeafletService leafletService) {
+    public MedicineController(MedicineService medicineService,
+                              LeafletService leafletService,
+                              RefreshAheadService refreshAheadService) {
         this.medicineService = medicineService;
         this.leafletService = leafletService;
+        this.refreshAheadService = refreshAheadService;
     }
 
     @GetMapping("/medicines/search")
-    public ResponseEntity<ResponseDTO<List<MedicineDTO>>> searchMedicines(@RequestParam String query) {
+    public ResponseEntity<ResponseDTO<List<MedicineDTO>>> searchMedicines(
+            @RequestParam String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        medicineService.recordSearch(query);
+        if (page != null || size != null) {
+            return searchMedicinesPage(query, page, size);
+        }
+
         try {
-            List<MedicineDTO> medicines = medicineService.searchMedicines(query);
+            // Consultas com erro de digitação são respondidas pelo catálogo local sempre que possível
+            List<MedicineDTO> medicines = fuzzy ? medicineService.searchMedicinesFuzzy(query) : List.of();
+            if (medicines.isEmpty()) {
+                medicines = medicineService.searchMedicines(query);
+            }
 
             if (medicines.isEmpty()) {
                 return ResponseEntity.ok(ResponseDTO.success(
@@ -52,8 +88,34 @@ public class MedicineController {
         }
     }
 
+    @GetMapping("/medicines/suggest")
+    public ResponseEntity<ResponseDTO<List<String>>> suggestMedicines(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<String> suggestions = medicineService.suggestMedicines(prefix, limit);
+        return ResponseEntity.ok(ResponseDTO.success(suggestions, "Sugestões encontradas com sucesso"));
+    }
+
+    private ResponseEntity<ResponseDTO<List<MedicineDTO>>> searchMedicinesPage(String query, Integer page, Integer size) {
+        try {
+            Page<MedicineDTO> medicines = medicineService.searchMedicines(
+                query,
+                page != null ? page : 0,
+                size != null ? size : medicineService.getDefaultPageSize()
+            );
+            return ResponseBuilder.ok(medicines);
+        } catch (ScrapingException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ResponseDTO.error(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Erro ao buscar medicamentos: " + e.getMessage()
+                ));
+        }
+    }
+
     @GetMapping("/medicines/{registryNumber}")
-    public ResponseEntity<ResponseDTO<MedicineDTO>> getMedicineByRegistryNumber(@PathVariable String registryNumber) {
+    public ResponseEntity<ResponseDTO<MedicineDTO>> getMedicineByRegistryNumber(@PathVariable String registryNumber,
+                                                                            WebRequest webRequest) {
         try {
             Optional<MedicineDTO> medicine = medicineService.getMedicineByRegistryNumber(registryNumber);
 
@@ -64,10 +126,21 @@ public class MedicineController {
                     ));
             }
 
-            return ResponseEntity.ok(ResponseDTO.success(
-                medicine.get(), 
+            MedicineDTO medicineDTO = medicine.get();
+            boolean stale = refreshAheadService.onServed("medicine", registryNumber, medicineDTO.getCacheExpiry(),
+                () -> medicineService.refreshMedicine(registryNumber));
+
+            // O medicamento vem do cache; com a mesma versão o corpo nem é serializado
+            if (isNotModified(webRequest, ResourceVersion.ofMedicine(medicineDTO))) {
+                return null;
+            }
+
+            ResponseDTO<MedicineDTO> response = ResponseDTO.success(
+                medicineDTO, 
                 "Medicamento encontrado com sucesso"
-            ));
+            );
+            response.setMetadata(ResponseMetadata.freshness(stale, medicineDTO.getLastUpdated()));
+            return ResponseEntity.ok(response);
         } catch (ScrapingException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error(
@@ -78,8 +151,17 @@ public class MedicineController {
     }
 
     @GetMapping("/leaflets/{registryNumber}")
-    public ResponseEntity<ResponseDTO<LeafletDTO>> getLeafletByRegistryNumber(@PathVariable String registryNumber) {
+    public ResponseEntity<ResponseDTO<LeafletDTO>> getLeafletByRegistryNumber(@PathVariable String registryNumber,
+                                                                          WebRequest webRequest) {
         try {
+            // A versão vem do cache ou das colunas de hash, sem carregar os textos da bula
+            Optional<ResourceVersion> version = leafletService.getLeafletVersion(registryNumber);
+            if (version.isPresent() && isNotModified(webRequest, version.get())) {
+                refreshAheadService.onServed("leaflet", registryNumber, version.get().cacheExpiry(),
+                    () -> leafletService.refreshLeaflet(registryNumber));
+                return null;
+            }
+
             Optional<LeafletDTO> leaflet = leafletService.getLeafletByRegistryNumber(registryNumber);
 
             if (leaflet.isEmpty()) {
@@ -89,10 +171,23 @@ public class MedicineController {
                     ));
             }
 
-            return ResponseEntity.ok(ResponseDTO.success(
-                leaflet.get(), 
+            LeafletDTO leafletDTO = leaflet.get();
+            boolean stale = refreshAheadService.onServed("leaflet", registryNumber, leafletDTO.getCacheExpiry(),
+                () -> leafletService.refreshLeaflet(registryNumber));
+
+            // Sem versão prévia (ex.: bula buscada agora na Anvisa), a verificação usa a bula carregada
+            if (version.isEmpty() && ResourceVersion.ofLeaflet(leafletDTO)
+                    .map(loaded -> isNotModified(webRequest, loaded))
+                    .orElse(false)) {
+                return null;
+            }
+
+            ResponseDTO<LeafletDTO> response = ResponseDTO.success(
+                leafletDTO, 
                 "Bula encontrada com sucesso"
-            ));
+            );
+            response.setMetadata(ResponseMetadata.freshness(stale, leafletDTO.getLastUpdated()));
+            return ResponseEntity.ok(response);
         } catch (ScrapingException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ResponseDTO.error(
@@ -101,4 +196,151 @@ public class MedicineController {
                 ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Lista as seções disponíveis da bula, sem o conteúdo.
+     */
+    @GetMapping("/leaflets/{registryNumber}/sections")
+    public ResponseEntity<ResponseDTO<List<LeafletSectionDTO>>> getLeafletSections(
+            @PathVariable String registryNumber,
+            @RequestParam(required = false) String part) {
+        List<LeafletSectionDTO> sections = findLeafletSections(registryNumber, part).stream()
+            .map(section -> section.withFormat("none"))
+            .toList();
+
+        return ResponseEntity.ok(ResponseDTO.success(sections, "Seções encontradas: " + sections.size()));
+    }
+
+    /**
+     * Retorna uma única seção da bula (ex.: contraindications, dosage), em HTML ou texto puro.
+     * Sem {@code part}, usa a bula do paciente e, se ela não tiver a seção, a do profissional.
+     */
+    @GetMapping("/leaflets/{registryNumber}/sections/{name}")
+    public ResponseEntity<ResponseDTO<LeafletSectionDTO>> getLeafletSection(
+            @PathVariable String registryNumber,
+            @PathVariable String name,
+            @RequestParam(required = false) String part,
+            @RequestParam(defaultValue = "html") String format) {
+        String sectionName = name.toLowerCase();
+        if (!LeafletSectionParser.names().contains(sectionName)) {
+            throw new IllegalArgumentException("Seção inválida: " + name + " (use uma de "
+                + LeafletSectionParser.names().stream().sorted().toList() + ")");
+        }
+
+        LeafletSectionDTO section = findLeafletSections(registryNumber, part).stream()
+            .filter(candidate -> candidate.getName().equals(sectionName))
+            .findFirst()
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Seção " + sectionName + " não encontrada na bula do medicamento com número de registro: " + registryNumber));
+
+        return ResponseEntity.ok(ResponseDTO.success(section.withFormat(format), "Seção encontrada com sucesso"));
+    }
+
+    private List<LeafletSectionDTO> findLeafletSections(String registryNumber, String part) {
+        LeafletPart leafletPart = part != null ? LeafletPart.fromPath(part) : null;
+        LeafletDTO leafletDTO = leafletService.getLeafletByRegistryNumber(registryNumber)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Bula não encontrada para o medicamento com número de registro: " + registryNumber));
+
+        refreshAheadService.onServed("leaflet", registryNumber, leafletDTO.getCacheExpiry(),
+            () -> leafletService.refreshLeaflet(registryNumber));
+
+        return leafletService.getLeafletSections(leafletDTO, leafletPart);
+    }
+
+    /**
+     * Retorna o HTML de uma parte da bula. Se o cliente aceita gzip, os bytes já
+     * comprimidos no banco são enviados como estão, com {@code Content-Encoding: gzip},
+     * e o servidor não comprime a resposta de novo.
+     */
+    @GetMapping("/leaflets/{registryNumber}/{part}")
+    public ResponseEntity<byte[]> getLeafletPart(
+            @PathVariable String registryNumber,
+            @PathVariable String part,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LeafletPart leafletPart = LeafletPart.fromPath(part);
+        LeafletDTO leafletDTO = leafletService.getLeafletByRegistryNumber(registryNumber)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Bula não encontrada para o medicamento com número de registro: " + registryNumber));
+
+        refreshAheadService.onServed("leaflet", registryNumber, leafletDTO.getCacheExpiry(),
+            () -> leafletService.refreshLeaflet(registryNumber));
+
+        byte[] compressed = leafletService.getCompressedLeaflet(leafletDTO, leafletPart);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip(acceptEncoding)) {
+            return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .contentLength(compressed.length)
+                .body(compressed);
+        }
+
+        return response.body(CompressionUtils.gunzip(compressed).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @PostMapping("/medicines/batch")
+    public Mono<ResponseEntity<ResponseDTO<List<BatchItemDTO<MedicineDTO>>>>> getMedicinesBatch(
+            @Valid @RequestBody BatchRequestDTO request) {
+        return medicineService.getMedicinesByRegistryNumbers(request.getRegistryNumbers())
+                .map(items -> {
+                    items.stream()
+                        .filter(item -> item.getStatus() == BatchItemDTO.Status.FOUND)
+                        .forEach(item -> refreshAheadService.onServed("medicine", item.getRegistryNumber(),
+                            item.getData().getCacheExpiry(),
+                            () -> medicineService.refreshMedicine(item.getRegistryNumber())));
+
+                    return ResponseEntity.ok(ResponseDTO.success(items, batchMessage(items, "Medicamentos")));
+                });
+    }
+
+    @PostMapping("/leaflets/batch")
+    public Mono<ResponseEntity<ResponseDTO<List<BatchItemDTO<LeafletDTO>>>>> getLeafletsBatch(
+            @Valid @RequestBody BatchRequestDTO request) {
+        return leafletService.getLeafletsByRegistryNumbers(request.getRegistryNumbers())
+                .map(items -> {
+                    items.stream()
+                        .filter(item -> item.getStatus() == BatchItemDTO.Status.FOUND)
+                        .forEach(item -> refreshAheadService.onServed("leaflet", item.getRegistryNumber(),
+                            item.getData().getCacheExpiry(),
+                            () -> leafletService.refreshLeaflet(item.getRegistryNumber())));
+
+                    return ResponseEntity.ok(ResponseDTO.success(items, batchMessage(items, "Bulas")));
+                });
+    }
+
+    /**
+     * Compara a versão com If-None-Match / If-Modified-Since. Com a mesma versão o status
+     * da resposta passa a 304 e o chamador deve retornar null; caso contrário, apenas os
+     * cabeçalhos ETag e Last-Modified são adicionados à resposta.
+     */
+    private boolean isNotModified(WebRequest webRequest, ResourceVersion version) {
+        long lastModified = version.lastModified() != null
+            ? version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : -1;
+        return webRequest.checkNotModified(version.etag(), lastModified);
+    }
+
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" recusa explicitamente a codificação
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private String batchMessage(List<? extends BatchItemDTO<?>> items, String resource) {
+        long found = items.stream()
+            .filter(item -> item.getStatus() == BatchItemDTO.Status.FOUND)
+            .count();
+        return String.format("%s encontrados: %d de %d", resource, found, items.size());
+    }
+}
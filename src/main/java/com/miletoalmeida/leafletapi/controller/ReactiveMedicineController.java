@@ -0,0 +1,123 @@
+package com.miletoalmeida.leafletapi.controller;
+
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.dto.ResponseDTO;
+import com.miletoalmeida.leafletapi.dto.ResponseMetadata;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import com.miletoalmeida.leafletapi.service.LeafletService;
+import com.miletoalmeida.leafletapi.service.MedicineService;
+import com.miletoalmeida.leafletapi.service.RefreshAheadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Variantes não bloqueantes dos endpoints de {@link MedicineController}.
+ *
+ * As respostas são processadas de forma assíncrona, liberando a thread do servlet
+ * enquanto a Anvisa é consultada.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveMedicineController {
+
+    private final MedicineService medicineService;
+    private final LeafletService leafletService;
+    private final RefreshAheadService refreshAheadService;
+
+    @Autowired
+    public ReactiveMedicineController(MedicineService medicineService,
+                                      LeafletService leafletService,
+                                      RefreshAheadService refreshAheadService) {
+        this.medicineService = medicineService;
+        this.leafletService = leafletService;
+        this.refreshAheadService = refreshAheadService;
+    }
+
+    @GetMapping("/medicines/search")
+    public Mono<ResponseEntity<ResponseDTO<List<MedicineDTO>>>> searchMedicines(@RequestParam String query) {
+        medicineService.recordSearch(query);
+        return medicineService.searchMedicinesReactive(query)
+                .map(medicines -> ResponseEntity.ok(ResponseDTO.success(
+                    medicines,
+                    medicines.isEmpty()
+                        ? "Nenhum medicamento encontrado para a busca: " + query
+                        : "Medicamentos encontrados com sucesso"
+                )))
+                .onErrorResume(ScrapingException.class, e -> Mono.just(ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResponseDTO.error(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Erro ao buscar medicamentos: " + e.getMessage()
+                    ))));
+    }
+
+    /**
+     * Emite os medicamentos em NDJSON ou Server-Sent Events, conforme o cabeçalho Accept,
+     * à medida que as páginas da Anvisa são lidas.
+     */
+    @GetMapping(value = "/medicines/search/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<MedicineDTO> streamMedicines(@RequestParam String query) {
+        return medicineService.streamMedicines(query);
+    }
+
+    @GetMapping("/medicines/{registryNumber}")
+    public Mono<ResponseEntity<ResponseDTO<MedicineDTO>>> getMedicineByRegistryNumber(@PathVariable String registryNumber) {
+        return medicineService.getMedicineByRegistryNumberReactive(registryNumber)
+                .map(medicine -> {
+                    boolean stale = refreshAheadService.onServed("medicine", registryNumber, medicine.getCacheExpiry(),
+                        () -> medicineService.refreshMedicine(registryNumber));
+
+                    ResponseDTO<MedicineDTO> response = ResponseDTO.success(
+                        medicine,
+                        "Medicamento encontrado com sucesso"
+                    );
+                    response.setMetadata(ResponseMetadata.freshness(stale, medicine.getLastUpdated()));
+                    return ResponseEntity.ok(response);
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ResponseDTO.notFound(
+                        "Medicamento não encontrado com número de registro: " + registryNumber
+                    )))
+                .onErrorResume(ScrapingException.class, e -> Mono.just(ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResponseDTO.error(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Erro ao buscar medicamento: " + e.getMessage()
+                    ))));
+    }
+
+    @GetMapping("/leaflets/{registryNumber}")
+    public Mono<ResponseEntity<ResponseDTO<LeafletDTO>>> getLeafletByRegistryNumber(@PathVariable String registryNumber) {
+        return leafletService.getLeafletByRegistryNumberReactive(registryNumber)
+                .map(leaflet -> {
+                    boolean stale = refreshAheadService.onServed("leaflet", registryNumber, leaflet.getCacheExpiry(),
+                        () -> leafletService.refreshLeaflet(registryNumber));
+
+                    ResponseDTO<LeafletDTO> response = ResponseDTO.success(
+                        leaflet,
+                        "Bula encontrada com sucesso"
+                    );
+                    response.setMetadata(ResponseMetadata.freshness(stale, leaflet.getLastUpdated()));
+                    return ResponseEntity.ok(response);
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ResponseDTO.notFound(
+                        "Bula não encontrada para o medicamento com número de registro: " + registryNumber
+                    )))
+                .onErrorResume(ScrapingException.class, e -> Mono.just(ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResponseDTO.error(
+                        HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Erro ao buscar bula: " + e.getMessage()
+                    ))));
+    }
+}
@@ -0,0 +1,66 @@
+package com.miletoalmeida.leafletapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemDTO<T> {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        INVALID,
+        ERROR
+    }
+
+    @JsonProperty("registryNumber")
+    private String registryNumber;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("data")
+    private T data;
+
+    @JsonProperty("error")
+    private String error;
+
+    public static <T> BatchItemDTO<T> found(String registryNumber, T data) {
+        return BatchItemDTO.<T>builder()
+                .registryNumber(registryNumber)
+                .status(Status.FOUND)
+                .data(data)
+                .build();
+    }
+
+    public static <T> BatchItemDTO<T> notFound(String registryNumber) {
+        return BatchItemDTO.<T>builder()
+                .registryNumber(registryNumber)
+                .status(Status.NOT_FOUND)
+                .build();
+    }
+
+    public static <T> BatchItemDTO<T> invalid(String registryNumber, String error) {
+        return BatchItemDTO.<T>builder()
+                .registryNumber(registryNumber)
+                .status(Status.INVALID)
+                .error(error)
+                .build();
+    }
+
+    public static <T> BatchItemDTO<T> error(String registryNumber, String error) {
+        return BatchItemDTO.<T>builder()
+                .registryNumber(registryNumber)
+                .status(Status.ERROR)
+                .error(error)
+                .build();
+    }
+}
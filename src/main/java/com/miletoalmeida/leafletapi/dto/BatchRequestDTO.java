@@ -0,0 +1,24 @@
+package com.miletoalmeida.leafletapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDTO {
+
+    public static final int MAX_ITEMS = 50;
+
+    @JsonProperty("registryNumbers")
+    @NotEmpty(message = "A lista de números de registro não pode estar vazia")
+    @Size(max = MAX_ITEMS, message = "A lista pode conter no máximo " + MAX_ITEMS + " números de registro")
+    private List<@NotBlank(message = "O número de registro não pode estar vazio") String> registryNumbers;
+}
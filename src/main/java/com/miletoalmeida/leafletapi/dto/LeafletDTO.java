@@ -1,5 +1,6 @@
 package com.miletoalmeida.leafletapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,13 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "leaflet_dto", indexes = {
+    @Index(name = "idx_leaflet_registry_number", columnList = "medicine_registry_number"),
+    @Index(name = "idx_leaflet_cache_expiry", columnList = "cache_expiry"),
+    @Index(name = "idx_leaflet_last_accessed", columnList = "last_accessed"),
+    @Index(name = "idx_leaflet_patient_content", columnList = "patient_content_hash"),
+    @Index(name = "idx_leaflet_professional_content", columnList = "professional_content_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +24,7 @@ public class LeafletDTO {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "medicine_registry_number")
     private String medicineRegistryNumber;
 
     @Column(columnDefinition = "TEXT")
@@ -24,6 +33,31 @@ public class LeafletDTO {
     @Column(columnDefinition = "TEXT")
     private String professionalLeaflet;
 
+    // Hash dos textos em LeafletContent; as colunas de texto e gzip abaixo ficam só para registros antigos
+    @JsonIgnore
+    @Column(name = "patient_content_hash", length = 64)
+    private String patientContentHash;
+
+    @JsonIgnore
+    @Column(name = "professional_content_hash", length = 64)
+    private String professionalContentHash;
+
+    @JsonIgnore
+    @Lob
+    @Column(name = "patient_leaflet_gzip")
+    private byte[] patientLeafletGzip;
+
+    @JsonIgnore
+    @Lob
+    @Column(name = "professional_leaflet_gzip")
+    private byte[] professionalLeafletGzip;
+
     private LocalDateTime lastUpdated;
+
+    @Column(name = "cache_expiry")
     private LocalDateTime cacheExpiry;
+
+    @JsonIgnore
+    @Column(name = "last_accessed")
+    private LocalDateTime lastAccessed;
 }
@@ -0,0 +1,29 @@
+package com.miletoalmeida.leafletapi.dto;
+
+import java.util.Arrays;
+
+/**
+ * Partes de uma bula que podem ser obtidas separadamente.
+ */
+public enum LeafletPart {
+    PATIENT("patient"),
+    PROFESSIONAL("professional");
+
+    private final String path;
+
+    LeafletPart(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public static LeafletPart fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(part -> part.path.equalsIgnoreCase(path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Parte da bula inválida: " + path + " (use patient ou professional)"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.miletoalmeida.leafletapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LeafletSectionDTO {
+    private String name;
+    private String title;
+    private LeafletPart part;
+    private String html;
+    private String text;
+
+    /**
+     * Cópia com apenas o formato pedido, para não enviar HTML e texto juntos.
+     */
+    public LeafletSectionDTO withFormat(String format) {
+        return switch (format) {
+            case "html" -> new LeafletSectionDTO(name, title, part, html, null);
+            case "text" -> new LeafletSectionDTO(name, title, part, null, text);
+            case "none" -> new LeafletSectionDTO(name, title, part, null, null);
+            default -> throw new IllegalArgumentException("Formato inválido: " + format + " (use html ou text)");
+        };
+    }
+}
@@ -21,6 +21,8 @@ public class MedicineDTO {
     private String regulatoryType;
     private String presentation;
     private String leafletUrl;
+    private LocalDateTime lastUpdated;
+    private LocalDateTime cacheExpiry;
     
     // Construtor para converter de Medicine para DTO
     public MedicineDTO(Medicine medicine) {
@@ -35,6 +37,8 @@ public class MedicineDTO {
         this.regulatoryType = medicine.getRegulatoryType();
         this.presentation = medicine.getPresentation();
         this.leafletUrl = medicine.getLeafletUrl();
+        this.lastUpdated = medicine.getLastUpdated();
+        this.cacheExpiry = medicine.getCachingTime();
     }
     
     // Método para converter de DTO para Medicine
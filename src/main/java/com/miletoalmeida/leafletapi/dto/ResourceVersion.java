@@ -0,0 +1,65 @@
+package com.miletoalmeida.leafletapi.dto;
+
+import com.miletoalmeida.leafletapi.util.HashUtils;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Versão de um recurso para GET condicional: ETag forte calculado a partir do conteúdo
+ * e Last-Modified a partir de {@code lastUpdated}.
+ *
+ * O ETag ignora datas de atualização, então uma atualização que traz o mesmo conteúdo
+ * da Anvisa continua respondendo 304 para quem já tem a versão.
+ *
+ * @param etag Hash do conteúdo, sem aspas
+ * @param lastModified Data da última atualização, ou null se desconhecida
+ * @param cacheExpiry Validade do registro, usada para agendar a atualização ao servir um 304
+ */
+public record ResourceVersion(String etag, LocalDateTime lastModified, LocalDateTime cacheExpiry) {
+
+    /**
+     * Versão de uma bula a partir dos hashes dos seus textos, sem carregar os textos.
+     *
+     * @return versão, ou vazio para registros antigos gravados sem hash de conteúdo
+     */
+    public static Optional<ResourceVersion> ofLeaflet(String patientContentHash,
+                                                      String professionalContentHash,
+                                                      LocalDateTime lastUpdated,
+                                                      LocalDateTime cacheExpiry) {
+        if (patientContentHash == null && professionalContentHash == null) {
+            return Optional.empty();
+        }
+
+        String etag = HashUtils.sha256Hex(Objects.toString(patientContentHash, "")
+                + ":" + Objects.toString(professionalContentHash, ""));
+        return Optional.of(new ResourceVersion(etag, lastUpdated, cacheExpiry));
+    }
+
+    public static Optional<ResourceVersion> ofLeaflet(LeafletDTO leaflet) {
+        return ofLeaflet(leaflet.getPatientContentHash(), leaflet.getProfessionalContentHash(),
+                leaflet.getLastUpdated(), leaflet.getCacheExpiry());
+    }
+
+    public static ResourceVersion ofMedicine(MedicineDTO medicine) {
+        String content = Stream.of(
+                        medicine.getId(),
+                        medicine.getProcessNumber(),
+                        medicine.getRegistryNumber(),
+                        medicine.getProductName(),
+                        medicine.getCompany(),
+                        medicine.getCnpj(),
+                        medicine.getActiveIngredient(),
+                        medicine.getTherapeuticClass(),
+                        medicine.getRegulatoryType(),
+                        medicine.getPresentation(),
+                        medicine.getLeafletUrl())
+                .map(value -> Objects.toString(value, ""))
+                .collect(Collectors.joining("\u0000"));
+
+        return new ResourceVersion(HashUtils.sha256Hex(content), medicine.getLastUpdated(), medicine.getCacheExpiry());
+    }
+}
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,6 +28,12 @@ public class ResponseMetadata {
     @JsonProperty("totalPages")
     private Integer totalPages;
 
+    @JsonProperty("stale")
+    private Boolean stale;
+
+    @JsonProperty("lastUpdated")
+    private LocalDateTime lastUpdated;
+
     public static ResponseMetadata of(Integer page, Integer size, Long totalElements, Integer totalPages) {
         return ResponseMetadata.builder()
                 .page(page)
@@ -34,4 +42,11 @@ public class ResponseMetadata {
                 .totalPages(totalPages)
                 .build();
     }
+
+    public static ResponseMetadata freshness(boolean stale, LocalDateTime lastUpdated) {
+        return ResponseMetadata.builder()
+                .stale(stale)
+                .lastUpdated(lastUpdated)
+                .build();
+    }
 }
\ No newline at end of file
@@ -8,6 +8,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "cache_entry", indexes = {
+    @Index(name = "idx_cache_entry_key_type", columnList = "cache_key, type"),
+    @Index(name = "idx_cache_entry_expires_at", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,14 +20,18 @@ public class CacheEntry {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "cache_key")
     private String cacheKey;
 
     @Lob
     @Column(columnDefinition = "TEXT")
     private String cacheValue;
 
+    @Column(name = "type")
     private String type; // SEARCH, MEDICINE, LEAFLET
 
     private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 }
\ No newline at end of file
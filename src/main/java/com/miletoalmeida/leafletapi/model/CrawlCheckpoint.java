@@ -0,0 +1,46 @@
+package com.miletoalmeida.leafletapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição de um rastreamento do catálogo da Anvisa, persistida a cada página para
+ * que o rastreamento continue de onde parou após uma reinicialização.
+ */
+@Entity
+@Table(name = "crawl_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrawlCheckpoint {
+    @Id
+    private String name;
+
+    @Column(name = "next_page")
+    private int nextPage;
+
+    @Column(name = "page_size")
+    private int pageSize;
+
+    @Column(name = "total_pages")
+    private int totalPages;
+
+    @Column(name = "total_elements")
+    private long totalElements;
+
+    @Column(name = "items_crawled")
+    private long itemsCrawled;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,39 @@
+package com.miletoalmeida.leafletapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Texto de bula armazenado uma única vez por conteúdo, identificado pelo SHA-256 do
+ * texto em UTF-8. Bulas idênticas de registros diferentes apontam para a mesma linha.
+ */
+@Entity
+@Table(name = "leaflet_content", indexes = {
+    @Index(name = "idx_leaflet_content_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeafletContent {
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String hash;
+
+    @Lob
+    @Column(name = "content_gzip", nullable = false)
+    private byte[] contentGzip;
+
+    // Tamanho do texto em UTF-8, antes da compressão
+    @Column(name = "original_size")
+    private long originalSize;
+
+    @Column(name = "compressed_size")
+    private long compressedSize;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package com.miletoalmeida.leafletapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seção de um texto de bula, extraída uma vez por conteúdo ({@link LeafletContent}).
+ * O HTML e o texto puro são guardados em gzip.
+ */
+@Entity
+@Table(name = "leaflet_section",
+    uniqueConstraints = @UniqueConstraint(name = "uk_leaflet_section_position", columnNames = {"content_hash", "position"}),
+    indexes = @Index(name = "idx_leaflet_section_content", columnList = "content_hash"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeafletSection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    @Column(name = "position")
+    private int position;
+
+    @Column(name = "name", length = 40)
+    private String name;
+
+    @Column(name = "title", length = 255)
+    private String title;
+
+    @Lob
+    @Column(name = "html_gzip")
+    private byte[] htmlGzip;
+
+    @Lob
+    @Column(name = "text_gzip")
+    private byte[] textGzip;
+}
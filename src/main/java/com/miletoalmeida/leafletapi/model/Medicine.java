@@ -8,7 +8,10 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "medicine")
+@Table(name = "medicine", indexes = {
+    @Index(name = "idx_medicine_cache_expiry", columnList = "cache_expiry"),
+    @Index(name = "idx_medicine_last_accessed", columnList = "last_accessed")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,4 +56,7 @@ public class Medicine {
 
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
+
+    @Column(name = "last_accessed")
+    private LocalDateTime lastAccessed;
 }
\ No newline at end of file
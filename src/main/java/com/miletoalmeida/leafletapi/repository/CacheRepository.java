@@ -1,11 +1,16 @@
 package com.miletoalmeida.leafletapi.repository;
 
 import com.miletoalmeida.leafletapi.model.CacheEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +18,16 @@ import java.util.Optional;
 public interface CacheRepository extends JpaRepository<CacheEntry, Long> {
     Optional<CacheEntry> findByCacheKeyAndType(String cacheKey, String type);
 
-    @Query("SELECT c FROM CacheEntry c WHERE c.expiresAt < ?1")
-    List<CacheEntry> findExpiredEntries(LocalDateTime now);
+    @Query("SELECT c.id FROM CacheEntry c WHERE c.expiresAt < :cutoff")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CacheEntry c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CacheEntry c WHERE c.type = :type")
+    int deleteByType(@Param("type") String type);
 }
\ No newline at end of file
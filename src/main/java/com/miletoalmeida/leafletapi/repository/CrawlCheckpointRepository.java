@@ -0,0 +1,9 @@
+package com.miletoalmeida.leafletapi.repository;
+
+import com.miletoalmeida.leafletapi.model.CrawlCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrawlCheckpointRepository extends JpaRepository<CrawlCheckpoint, String> {
+}
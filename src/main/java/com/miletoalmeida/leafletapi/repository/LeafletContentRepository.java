@@ -0,0 +1,67 @@
+package com.miletoalmeida.leafletapi.repository;
+
+import com.miletoalmeida.leafletapi.model.LeafletContent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeafletContentRepository extends JpaRepository<LeafletContent, String> {
+
+    /**
+     * Conteúdos criados ou reutilizados pela última vez antes de {@code cutoff} que
+     * nenhuma bula referencia mais.
+     */
+    @Query("SELECT c.hash FROM LeafletContent c WHERE c.createdAt < :cutoff " +
+           "AND NOT EXISTS (SELECT 1 FROM LeafletDTO l " +
+           "WHERE l.patientContentHash = c.hash OR l.professionalContentHash = c.hash)")
+    List<String> findOrphanHashes(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Remove os conteúdos da lista que continuam órfãos, repetindo as condições de
+     * {@link #findOrphanHashes} para não apagar um conteúdo reutilizado depois da seleção.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LeafletContent c WHERE c.hash IN :hashes AND c.createdAt < :cutoff " +
+           "AND NOT EXISTS (SELECT 1 FROM LeafletDTO l " +
+           "WHERE l.patientContentHash = c.hash OR l.professionalContentHash = c.hash)")
+    int deleteOrphans(@Param("hashes") Collection<String> hashes, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Renova {@code createdAt} de um conteúdo reutilizado, reiniciando o período de carência
+     * da limpeza de órfãos.
+     *
+     * @return 1 se o conteúdo existe, 0 caso contrário
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LeafletContent c SET c.createdAt = :now WHERE c.hash = :hash")
+    int touch(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.originalSize), 0), COALESCE(SUM(c.compressedSize), 0) FROM LeafletContent c")
+    List<Object[]> summarizeStored();
+
+    /**
+     * Quantidade e tamanho dos textos de paciente referenciados pelas bulas, contando cada
+     * registro separadamente, como seriam armazenados sem deduplicação.
+     */
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.originalSize), 0), COALESCE(SUM(c.compressedSize), 0) " +
+           "FROM LeafletDTO l JOIN LeafletContent c ON c.hash = l.patientContentHash")
+    List<Object[]> summarizePatientReferences();
+
+    /**
+     * Como {@link #summarizePatientReferences()}, para os textos profissionais.
+     */
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.originalSize), 0), COALESCE(SUM(c.compressedSize), 0) " +
+           "FROM LeafletDTO l JOIN LeafletContent c ON c.hash = l.professionalContentHash")
+    List<Object[]> summarizeProfessionalReferences();
+}
@@ -1,11 +1,16 @@
 package com.miletoalmeida.leafletapi.repository;
 
 import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +18,55 @@ import java.util.Optional;
 public interface LeafletRepository extends JpaRepository<LeafletDTO, Long> {
     Optional<LeafletDTO> findByMedicineRegistryNumber(String registryNumber);
 
+    List<LeafletDTO> findByMedicineRegistryNumberIn(Collection<String> registryNumbers);
+
+    /**
+     * Apenas os hashes e as datas da bula, sem os textos, para responder GETs condicionais.
+     */
+    Optional<LeafletVersionView> findVersionByMedicineRegistryNumber(String registryNumber);
+
+    @Query("SELECT l.patientLeafletGzip FROM LeafletDTO l WHERE l.medicineRegistryNumber = :registryNumber")
+    Optional<byte[]> findPatientLeafletGzip(@Param("registryNumber") String registryNumber);
+
+    @Query("SELECT l.professionalLeafletGzip FROM LeafletDTO l WHERE l.medicineRegistryNumber = :registryNumber")
+    Optional<byte[]> findProfessionalLeafletGzip(@Param("registryNumber") String registryNumber);
+
     @Query("SELECT l FROM LeafletDTO l WHERE l.cacheExpiry < ?1")
     List<LeafletDTO> findExpiredCache(LocalDateTime now);
+
+    @Query("SELECT l.id FROM LeafletDTO l WHERE l.cacheExpiry < :cutoff")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LeafletDTO l WHERE l.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bulas que expiram antes de {@code threshold} e foram acessadas desde {@code since},
+     * das acessadas mais recentemente para as mais antigas.
+     */
+    @Query("SELECT l.medicineRegistryNumber FROM LeafletDTO l " +
+           "WHERE l.cacheExpiry < :threshold AND l.lastAccessed >= :since " +
+           "ORDER BY l.lastAccessed DESC")
+    List<String> findRefreshCandidates(@Param("threshold") LocalDateTime threshold,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE LeafletDTO l SET l.lastAccessed = :accessedAt " +
+           "WHERE l.medicineRegistryNumber IN :registryNumbers AND (l.lastAccessed IS NULL OR l.lastAccessed < :accessedAt)")
+    int updateLastAccessed(@Param("registryNumbers") Collection<String> registryNumbers,
+                           @Param("accessedAt") LocalDateTime accessedAt);
+
+    interface LeafletVersionView {
+        String getPatientContentHash();
+
+        String getProfessionalContentHash();
+
+        LocalDateTime getLastUpdated();
+
+        LocalDateTime getCacheExpiry();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.miletoalmeida.leafletapi.repository;
+
+import com.miletoalmeida.leafletapi.model.LeafletSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeafletSectionRepository extends JpaRepository<LeafletSection, Long> {
+
+    List<LeafletSection> findByContentHashOrderByPosition(String contentHash);
+
+    boolean existsByContentHash(String contentHash);
+
+    /**
+     * Remove as seções dos conteúdos da lista que já não existem em {@code LeafletContent}.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LeafletSection s WHERE s.contentHash IN :hashes " +
+           "AND NOT EXISTS (SELECT 1 FROM LeafletContent c WHERE c.hash = s.contentHash)")
+    int deleteOrphansByContentHashes(@Param("hashes") Collection<String> hashes);
+}
@@ -2,11 +2,16 @@ package com.miletoalmeida.leafletapi.repository;
 
 import com.miletoalmeida.leafletapi.dto.MedicineDTO;
 import com.miletoalmeida.leafletapi.model.Medicine;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +19,8 @@ import java.util.Optional;
 public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     Optional<Medicine> findByRegistryNumber(String registryNumber);
 
+    List<Medicine> findByRegistryNumberIn(Collection<String> registryNumbers);
+
     List<MedicineDTO> findByProductNameContainingIgnoreCase(String name);
 
     List<MedicineDTO> findByActiveIngredientContainingIgnoreCase(String activeIngredient);
@@ -21,4 +28,30 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     @Query("SELECT m FROM Medicine m WHERE m.cachingTime < ?1")
     List<Medicine> findExpiredCache(LocalDateTime dateTime);
 
+    @Query("SELECT m.registryNumber FROM Medicine m WHERE m.cachingTime < :cutoff")
+    List<String> findExpiredRegistryNumbers(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Medicine m WHERE m.registryNumber IN :registryNumbers")
+    int deleteByRegistryNumbers(@Param("registryNumbers") Collection<String> registryNumbers);
+
+    /**
+     * Registros que expiram antes de {@code threshold} e foram acessados desde {@code since},
+     * dos acessados mais recentemente para os mais antigos.
+     */
+    @Query("SELECT m.registryNumber FROM Medicine m " +
+           "WHERE m.cachingTime < :threshold AND m.lastAccessed >= :since " +
+           "ORDER BY m.lastAccessed DESC")
+    List<String> findRefreshCandidates(@Param("threshold") LocalDateTime threshold,
+                                       @Param("since") LocalDateTime since,
+                                       Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Medicine m SET m.lastAccessed = :accessedAt " +
+           "WHERE m.registryNumber IN :registryNumbers AND (m.lastAccessed IS NULL OR m.lastAccessed < :accessedAt)")
+    int updateLastAccessed(@Param("registryNumbers") Collection<String> registryNumbers,
+                           @Param("accessedAt") LocalDateTime accessedAt);
+
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.repository.LeafletRepository;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registra em memória os acessos a medicamentos e bulas e grava a data do último
+ * acesso no banco periodicamente, em lote, fora do caminho da requisição.
+ */
+@Slf4j
+@Service
+public class AccessTracker {
+
+    private static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final MedicineRepository medicineRepository;
+    private final LeafletRepository leafletRepository;
+
+    private final Set<String> medicines = ConcurrentHashMap.newKeySet();
+    private final Set<String> leaflets = ConcurrentHashMap.newKeySet();
+
+    public AccessTracker(MedicineRepository medicineRepository, LeafletRepository leafletRepository) {
+        this.medicineRepository = medicineRepository;
+        this.leafletRepository = leafletRepository;
+    }
+
+    /**
+     * @param operation "medicine" ou "leaflet"; outras operações são ignoradas
+     * @param registryNumber Número de registro acessado
+     */
+    public void record(String operation, String registryNumber) {
+        switch (operation) {
+            case "medicine" -> medicines.add(registryNumber);
+            case "leaflet" -> leaflets.add(registryNumber);
+            default -> {
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leafletapi.refresh.background.access-flush-interval:PT30S}")
+    public void flush() {
+        LocalDateTime now = LocalDateTime.now();
+        int medicinesUpdated = flush(medicines, chunk -> medicineRepository.updateLastAccessed(chunk, now));
+        int leafletsUpdated = flush(leaflets, chunk -> leafletRepository.updateLastAccessed(chunk, now));
+
+        if (medicinesUpdated + leafletsUpdated > 0) {
+            log.debug("Último acesso gravado para {} medicamentos e {} bulas", medicinesUpdated, leafletsUpdated);
+        }
+    }
+
+    private int flush(Set<String> pending, ToIntFunction<List<String>> update) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<String> drained = new ArrayList<>(pending);
+        pending.removeAll(drained);
+
+        int updated = 0;
+        for (int start = 0; start < drained.size(); start += FLUSH_CHUNK_SIZE) {
+            List<String> chunk = drained.subList(start, Math.min(drained.size(), start + FLUSH_CHUNK_SIZE));
+            try {
+                updated += update.applyAsInt(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar último acesso de {} registros: {}", chunk.size(), e.getMessage());
+            }
+        }
+        return updated;
+    }
+}
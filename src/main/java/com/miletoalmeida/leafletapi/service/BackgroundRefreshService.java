@@ -0,0 +1,117 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.RefreshProperties;
+import com.miletoalmeida.leafletapi.repository.LeafletRepository;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Atualiza continuamente, em pequenos lotes, os medicamentos e bulas que estão perto
+ * de expirar, antes que um usuário precise esperar por eles.
+ *
+ * A cada execução são escolhidos os registros com expiração dentro de {@code lookahead},
+ * dos acessados mais recentemente para os mais antigos, até o orçamento de requisições
+ * à Anvisa da execução. Registros cuja atualização falha ficam de fora por
+ * {@code failureBackoff}.
+ */
+@Slf4j
+@Service
+public class BackgroundRefreshService {
+
+    private final MedicineRepository medicineRepository;
+    private final LeafletRepository leafletRepository;
+    private final MedicineService medicineService;
+    private final LeafletService leafletService;
+    private final RefreshAheadService refreshAheadService;
+    private final RefreshProperties properties;
+
+    private final Map<String, LocalDateTime> backoff = new ConcurrentHashMap<>();
+
+    public BackgroundRefreshService(MedicineRepository medicineRepository,
+                                    LeafletRepository leafletRepository,
+                                    MedicineService medicineService,
+                                    LeafletService leafletService,
+                                    RefreshAheadService refreshAheadService,
+                                    RefreshProperties properties) {
+        this.medicineRepository = medicineRepository;
+        this.leafletRepository = leafletRepository;
+        this.medicineService = medicineService;
+        this.leafletService = leafletService;
+        this.refreshAheadService = refreshAheadService;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${leafletapi.refresh.background.interval:PT1M}",
+               initialDelayString = "${leafletapi.refresh.background.interval:PT1M}")
+    public void refreshExpiring() {
+        RefreshProperties.Background background = properties.getBackground();
+        if (!properties.isEnabled() || !background.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime threshold = now.plus(background.getLookahead());
+        LocalDateTime since = now.minus(background.getAccessWindow());
+        backoff.values().removeIf(until -> until.isBefore(now));
+
+        int medicines = refreshBatch("medicine",
+                medicineRepository.findRefreshCandidates(threshold, since, candidates(background.getMedicineBudget())),
+                background.getMedicineBudget(),
+                registryNumber -> {
+                    if (medicineService.refreshMedicine(registryNumber).isEmpty()) {
+                        throw new IllegalStateException("Medicamento não encontrado na Anvisa: " + registryNumber);
+                    }
+                });
+
+        int leaflets = refreshBatch("leaflet",
+                leafletRepository.findRefreshCandidates(threshold, since, candidates(background.getLeafletBudget())),
+                background.getLeafletBudget(),
+                registryNumber -> {
+                    if (leafletService.refreshLeaflet(registryNumber).isEmpty()) {
+                        throw new IllegalStateException("Bula não encontrada na Anvisa: " + registryNumber);
+                    }
+                });
+
+        if (medicines + leaflets > 0) {
+            log.info("Atualização periódica: {} medicamentos e {} bulas", medicines, leaflets);
+        }
+    }
+
+    /**
+     * Busca o dobro do orçamento para compensar candidatos em backoff.
+     */
+    private PageRequest candidates(int budget) {
+        return PageRequest.of(0, Math.max(1, budget * 2));
+    }
+
+    private int refreshBatch(String operation, List<String> candidates, int budget, Consumer<String> refresher) {
+        int used = 0;
+        for (String registryNumber : candidates) {
+            if (used >= budget) {
+                break;
+            }
+
+            String backoffKey = operation + ":" + registryNumber;
+            if (backoff.containsKey(backoffKey)) {
+                continue;
+            }
+
+            used++;
+            boolean refreshed = refreshAheadService.refreshNow(operation, registryNumber,
+                    () -> refresher.accept(registryNumber));
+            if (!refreshed) {
+                backoff.put(backoffKey, LocalDateTime.now().plus(properties.getBackground().getFailureBackoff()));
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,154 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.LeafletContentProperties;
+import com.miletoalmeida.leafletapi.config.PurgeProperties;
+import com.miletoalmeida.leafletapi.config.RefreshProperties;
+import com.miletoalmeida.leafletapi.repository.CacheRepository;
+import com.miletoalmeida.leafletapi.repository.LeafletContentRepository;
+import com.miletoalmeida.leafletapi.repository.LeafletRepository;
+import com.miletoalmeida.leafletapi.repository.LeafletSectionRepository;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import com.miletoalmeida.leafletapi.service.search.MedicineSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Remove registros expirados de {@code CacheEntry}, {@code Medicine} e {@code LeafletDTO},
+ * e os textos de {@code LeafletContent} (com suas seções) que nenhuma bula referencia mais.
+ *
+ * Cada lote seleciona apenas as chaves das linhas expiradas (sem carregar entidades nem
+ * o conteúdo TEXT) e as remove com um único DELETE ... IN, na sua própria transação.
+ * Medicamentos e bulas só são removidos depois de passarem do limite de stale, quando
+ * não podem mais ser servidos.
+ */
+@Slf4j
+@Service
+public class CachePurgeService {
+
+    private final CacheRepository cacheRepository;
+    private final MedicineRepository medicineRepository;
+    private final LeafletRepository leafletRepository;
+    private final LeafletContentRepository contentRepository;
+    private final LeafletSectionRepository sectionRepository;
+    private final LeafletContentStore contentStore;
+    private final MedicineSearchIndex searchIndex;
+    private final PurgeProperties properties;
+    private final RefreshProperties refreshProperties;
+    private final LeafletContentProperties contentProperties;
+    private final MeterRegistry meterRegistry;
+
+    public CachePurgeService(CacheRepository cacheRepository,
+                             MedicineRepository medicineRepository,
+                             LeafletRepository leafletRepository,
+                             LeafletContentRepository contentRepository,
+                             LeafletSectionRepository sectionRepository,
+                             LeafletContentStore contentStore,
+                             MedicineSearchIndex searchIndex,
+                             PurgeProperties properties,
+                             RefreshProperties refreshProperties,
+                             LeafletContentProperties contentProperties,
+                             MeterRegistry meterRegistry) {
+        this.cacheRepository = cacheRepository;
+        this.medicineRepository = medicineRepository;
+        this.leafletRepository = leafletRepository;
+        this.contentRepository = contentRepository;
+        this.sectionRepository = sectionRepository;
+        this.contentStore = contentStore;
+        this.searchIndex = searchIndex;
+        this.properties = properties;
+        this.refreshProperties = refreshProperties;
+        this.contentProperties = contentProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${leafletapi.purge.interval:PT1H}",
+               initialDelayString = "${leafletapi.purge.interval:PT1H}")
+    public void purgeExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleCutoff = now.minus(refreshProperties.getMaxStale());
+
+        purge("cache_entry",
+                pageable -> cacheRepository.findExpiredIds(now, pageable),
+                cacheRepository::deleteByIds,
+                ids -> { });
+        purge("medicine",
+                pageable -> medicineRepository.findExpiredRegistryNumbers(staleCutoff, pageable),
+                medicineRepository::deleteByRegistryNumbers,
+                searchIndex::remove);
+        purge("leaflet",
+                pageable -> leafletRepository.findExpiredIds(staleCutoff, pageable),
+                leafletRepository::deleteByIds,
+                ids -> { });
+
+        // Depois das bulas, para remover também os textos que só elas referenciavam
+        LocalDateTime orphanCutoff = now.minus(contentProperties.getOrphanGracePeriod());
+        purge("leaflet_content",
+                pageable -> contentRepository.findOrphanHashes(orphanCutoff, pageable),
+                hashes -> {
+                    // Um conteúdo reutilizado desde a seleção continua no banco, com suas seções
+                    int deleted = contentRepository.deleteOrphans(hashes, orphanCutoff);
+                    sectionRepository.deleteOrphansByContentHashes(hashes);
+                    return deleted;
+                },
+                contentStore::evict);
+    }
+
+    /**
+     * Remove lotes de até {@code chunkSize} linhas até não restarem expiradas ou até
+     * atingir {@code maxChunksPerRun}.
+     *
+     * @param table Nome usado nos logs e métricas
+     * @param findKeys Seleciona as chaves do próximo lote
+     * @param delete Remove as linhas do lote
+     * @param afterDelete Chamado com as chaves removidas
+     * @return total de linhas removidas
+     */
+    private <K> int purge(String table,
+                          Function<PageRequest, List<K>> findKeys,
+                          ToIntFunction<List<K>> delete,
+                          Consumer<List<K>> afterDelete) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PageRequest firstChunk = PageRequest.of(0, properties.getChunkSize());
+        int deleted = 0;
+        int chunks = 0;
+
+        try {
+            List<K> keys;
+            do {
+                // Sempre a primeira página: as linhas do lote anterior já foram removidas
+                keys = findKeys.apply(firstChunk);
+                if (keys.isEmpty()) {
+                    break;
+                }
+
+                deleted += delete.applyAsInt(keys);
+                afterDelete.accept(keys);
+                chunks++;
+            } while (keys.size() == properties.getChunkSize() && chunks < properties.getMaxChunksPerRun());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao remover registros expirados de {}: {}", table, e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("cache.purge.duration", "table", table));
+        }
+
+        meterRegistry.counter("cache.purge.deleted", "table", table).increment(deleted);
+        if (deleted > 0) {
+            log.info("Removidos {} registros expirados de {} em {} lotes", deleted, table, chunks);
+        }
+        return deleted;
+    }
+}
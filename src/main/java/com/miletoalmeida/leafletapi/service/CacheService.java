@@ -1,11 +1,12 @@
 package com.miletoalmeida.leafletapi.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.cache.WriteBehindCacheWriter;
 import com.miletoalmeida.leafletapi.model.CacheEntry;
 import com.miletoalmeida.leafletapi.repository.CacheRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -16,14 +17,31 @@ public class CacheService {
 
     private final CacheRepository cacheRepository;
     private final ObjectMapper objectMapper;
+    private final WriteBehindCacheWriter writeBehind;
 
     @Autowired
-    public CacheService(CacheRepository cacheRepository, ObjectMapper objectMapper) {
+    public CacheService(CacheRepository cacheRepository, ObjectMapper objectMapper,
+                        WriteBehindCacheWriter writeBehind) {
         this.cacheRepository = cacheRepository;
         this.objectMapper = objectMapper;
+        this.writeBehind = writeBehind;
     }
 
     public <T> Optional<T> getFromCache(String key, String type, Class<T> valueType) {
+        return getFromCache(key, type, objectMapper.getTypeFactory().constructType(valueType));
+    }
+
+    public <T> Optional<T> getFromCache(String key, String type, JavaType valueType) {
+        // Escritas ainda na fila do write-behind têm precedência sobre o banco
+        Optional<String> pending = writeBehind.getPending(key, type);
+        if (pending.isPresent()) {
+            try {
+                return Optional.of(objectMapper.readValue(pending.get(), valueType));
+            } catch (JsonProcessingException e) {
+                return Optional.empty();
+            }
+        }
+
         Optional<CacheEntry> cacheEntry = cacheRepository.findByCacheKeyAndType(key, type);
 
         if (cacheEntry.isPresent()) {
@@ -44,6 +62,11 @@ public class CacheService {
     }
 
     public <T> void saveToCache(String key, String type, T value, long expiryInMinutes) {
+        if (writeBehind.isEnabled()) {
+            writeBehind.enqueue(key, type, value, LocalDateTime.now().plusMinutes(expiryInMinutes));
+            return;
+        }
+
         try {
             String serializedValue = objectMapper.writeValueAsString(value);
 
@@ -72,13 +95,13 @@ public class CacheService {
     }
 
     public void invalidateCache(String key, String type) {
+        writeBehind.discard(key, type);
         Optional<CacheEntry> entry = cacheRepository.findByCacheKeyAndType(key, type);
         entry.ifPresent(cacheRepository::delete);
     }
 
-    @Scheduled(fixedRate = 24 * 60 * 60 * 1000) // Run once a day
-    public void cleanupExpiredCache() {
-        LocalDateTime now = LocalDateTime.now();
-        cacheRepository.findExpiredEntries(now).forEach(cacheRepository::delete);
+    public void invalidateAll(String type) {
+        writeBehind.discardAll(type);
+        cacheRepository.deleteByType(type);
     }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.CrawlerProperties;
+import com.miletoalmeida.leafletapi.model.CrawlCheckpoint;
+import com.miletoalmeida.leafletapi.repository.CrawlCheckpointRepository;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import com.miletoalmeida.leafletapi.service.search.MedicineSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percorre a listagem de medicamentos da Anvisa página a página em segundo plano,
+ * salvando os resultados no banco e no índice de busca local.
+ *
+ * As requisições passam pelo mesmo {@code AnvisaRequestPacer} das consultas dos
+ * usuários. A posição é salva em {@link CrawlCheckpoint} após cada página, então o
+ * rastreamento continua de onde parou após uma reinicialização. Uma verificação
+ * periódica começa um novo rastreamento quando o anterior venceu
+ * {@code recrawlInterval}, sem depender de reiniciar a aplicação.
+ */
+@Slf4j
+@Service
+public class CatalogCrawlerService {
+
+    private static final String CHECKPOINT_NAME = "anvisa_catalog";
+
+    private final AnvisaScrapingService anvisaScrapingService;
+    private final MedicineService medicineService;
+    private final MedicineSearchIndex searchIndex;
+    private final CrawlCheckpointRepository checkpointRepository;
+    private final CrawlerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter failures;
+
+    private volatile CrawlCheckpoint checkpoint;
+    private volatile long runStartedNanos;
+    private volatile long itemsThisRun;
+    private volatile Thread worker;
+
+    public CatalogCrawlerService(AnvisaScrapingService anvisaScrapingService,
+                                 MedicineService medicineService,
+                                 MedicineSearchIndex searchIndex,
+                                 CrawlCheckpointRepository checkpointRepository,
+                                 CrawlerProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.anvisaScrapingService = anvisaScrapingService;
+        this.medicineService = medicineService;
+        this.searchIndex = searchIndex;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        this.failures = Counter.builder("anvisa.crawler.failures")
+                .description("Páginas do catálogo que falharam")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("anvisa.crawler.items", this, crawler -> crawler.checkpoint != null ? crawler.checkpoint.getItemsCrawled() : 0)
+                .description("Medicamentos salvos pelo rastreamento atual")
+                .register(meterRegistry);
+        Gauge.builder("anvisa.crawler.progress", this, CatalogCrawlerService::progress)
+                .description("Fração das páginas do catálogo já percorridas")
+                .register(meterRegistry);
+        Gauge.builder("anvisa.crawler.rate", this, CatalogCrawlerService::itemsPerSecond)
+                .description("Medicamentos salvos por segundo nesta execução")
+                .baseUnit("items/s")
+                .register(meterRegistry);
+        TimeGauge.builder("anvisa.crawler.eta", this, TimeUnit.SECONDS, CatalogCrawlerService::etaSeconds)
+                .description("Tempo estimado para terminar o rastreamento")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        checkpointRepository.findById(CHECKPOINT_NAME).ifPresent(saved -> {
+            checkpoint = saved;
+            if (saved.getCompletedAt() != null) {
+                searchIndex.setCatalogComplete(true);
+            }
+        });
+
+        startWorker();
+    }
+
+    /**
+     * Retoma um rastreamento suspenso ou começa o próximo quando o catálogo salvo
+     * venceu; não faz nada enquanto houver um rastreamento em andamento.
+     */
+    @Scheduled(fixedDelayString = "${leafletapi.crawler.check-interval:PT1H}",
+               initialDelayString = "${leafletapi.crawler.check-interval:PT1H}")
+    public void checkRecrawl() {
+        startWorker();
+    }
+
+    private synchronized void startWorker() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread current = worker;
+        if (current != null && current.isAlive()) {
+            return;
+        }
+
+        worker = Thread.ofVirtual().name("catalog-crawler").start(this::crawl);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    private void crawl() {
+        CrawlCheckpoint state = resumeOrRestart();
+        if (state == null) {
+            return;
+        }
+
+        runStartedNanos = System.nanoTime();
+        itemsThisRun = 0;
+        int consecutiveFailures = 0;
+        log.info("Rastreamento do catálogo iniciado na página {}", state.getNextPage());
+
+        while (!Thread.currentThread().isInterrupted()) {
+            int page = state.getNextPage();
+            try {
+                AnvisaSearchPage result = Objects.requireNonNull(anvisaScrapingService
+                        .searchMedicinesPage(properties.getQuery(), page, state.getPageSize())
+                        .block());
+                consecutiveFailures = 0;
+
+                int saved = medicineService.saveMedicines(result.getContent()).size();
+                itemsThisRun += saved;
+
+                state.setNextPage(page + 1);
+                state.setTotalPages(result.getTotalPages());
+                state.setTotalElements(result.getTotalElements());
+                state.setItemsCrawled(state.getItemsCrawled() + saved);
+                state.setUpdatedAt(LocalDateTime.now());
+                if (result.isLast()) {
+                    state.setCompletedAt(LocalDateTime.now());
+                }
+                checkpoint = checkpointRepository.save(state);
+
+                if (result.isLast()) {
+                    searchIndex.setCatalogComplete(true);
+                    log.info("Rastreamento do catálogo concluído: {} medicamentos em {} páginas",
+                            state.getItemsCrawled(), page);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                failures.increment();
+                consecutiveFailures++;
+                log.warn("Falha ao rastrear a página {} do catálogo ({} seguidas): {}",
+                        page, consecutiveFailures, e.getMessage());
+
+                if (consecutiveFailures >= properties.getMaxConsecutiveFailures()) {
+                    log.error("Rastreamento do catálogo suspenso após {} falhas seguidas na página {}",
+                            consecutiveFailures, page);
+                    return;
+                }
+                if (!sleep(properties.getRetryDelay().toMillis())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retoma o checkpoint salvo ou começa um novo rastreamento se o anterior já
+     * terminou há mais de {@code recrawlInterval}.
+     *
+     * @return estado a partir do qual rastrear, ou null se não há nada a fazer agora
+     */
+    private CrawlCheckpoint resumeOrRestart() {
+        CrawlCheckpoint state = checkpoint;
+        LocalDateTime now = LocalDateTime.now();
+
+        if (state != null && state.getCompletedAt() == null) {
+            return state;
+        }
+        if (state != null && state.getCompletedAt().plus(properties.getRecrawlInterval()).isAfter(now)) {
+            log.debug("Catálogo rastreado em {}; próximo rastreamento após {}",
+                    state.getCompletedAt(), properties.getRecrawlInterval());
+            return null;
+        }
+
+        CrawlCheckpoint fresh = new CrawlCheckpoint(
+                CHECKPOINT_NAME, 1, properties.getPageSize(), 0, 0, 0, now, now, null);
+        checkpoint = checkpointRepository.save(fresh);
+        return checkpoint;
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private double progress() {
+        CrawlCheckpoint state = checkpoint;
+        if (state == null || state.getTotalPages() == 0) {
+            return 0;
+        }
+        if (state.getCompletedAt() != null) {
+            return 1;
+        }
+        return Math.min(1.0, (state.getNextPage() - 1) / (double) state.getTotalPages());
+    }
+
+    private double itemsPerSecond() {
+        long started = runStartedNanos;
+        if (started == 0) {
+            return 0;
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return seconds > 0 ? itemsThisRun / seconds : 0;
+    }
+
+    private double etaSeconds() {
+        CrawlCheckpoint state = checkpoint;
+        double rate = itemsPerSecond();
+        if (state == null || state.getCompletedAt() != null || rate == 0) {
+            return 0;
+        }
+        long remaining = Math.max(0, state.getTotalElements() - state.getItemsCrawled());
+        return remaining / rate;
+    }
+}
@@ -0,0 +1,178 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.miletoalmeida.leafletapi.config.LeafletContentProperties;
+import com.miletoalmeida.leafletapi.model.LeafletContent;
+import com.miletoalmeida.leafletapi.repository.LeafletContentRepository;
+import com.miletoalmeida.leafletapi.util.CompressionUtils;
+import com.miletoalmeida.leafletapi.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Armazena os textos de bula uma única vez por conteúdo (SHA-256 do texto em UTF-8).
+ *
+ * Cada bula guarda apenas o hash dos seus textos. O cache em memória também é indexado
+ * pelo hash, então registros com a mesma bula compartilham o mesmo texto e os mesmos
+ * bytes comprimidos.
+ */
+@Slf4j
+@Service
+public class LeafletContentStore {
+
+    private final LeafletContentRepository contentRepository;
+    private final Cache<String, LeafletBody> bodies;
+    private final Counter deduplicated;
+    private final Counter stored;
+
+    public LeafletContentStore(LeafletContentRepository contentRepository,
+                               LeafletContentProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.contentRepository = contentRepository;
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(properties.getCacheMaximumSize().toBytes())
+                .weigher((String hash, LeafletBody body) -> body.weight())
+                .build();
+
+        this.deduplicated = Counter.builder("leaflet.content.deduplicated")
+                .description("Textos de bula gravados que já existiam com o mesmo conteúdo")
+                .register(meterRegistry);
+        this.stored = Counter.builder("leaflet.content.stored")
+                .description("Textos de bula novos gravados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o texto se ainda não existir um conteúdo idêntico. Um conteúdo existente tem
+     * {@code createdAt} renovado, para que a limpeza de órfãos não o remova antes de a bula
+     * que o reutiliza ser salva.
+     *
+     * @param text O texto da bula
+     * @return hash do conteúdo, ou null se o texto for null
+     */
+    public String store(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        String hash = HashUtils.sha256Hex(raw);
+        if (contentRepository.touch(hash, LocalDateTime.now()) > 0) {
+            deduplicated.increment();
+            return hash;
+        }
+
+        byte[] gzip = CompressionUtils.gzip(text);
+        try {
+            contentRepository.save(new LeafletContent(hash, gzip, raw.length, gzip.length, LocalDateTime.now()));
+            stored.increment();
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição gravou o mesmo conteúdo ao mesmo tempo
+            log.debug("Conteúdo de bula {} já gravado", hash);
+            deduplicated.increment();
+        }
+
+        bodies.put(hash, new LeafletBody(text, gzip));
+        return hash;
+    }
+
+    public Optional<LeafletBody> get(String hash) {
+        if (hash == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(bodies.get(hash, key -> contentRepository.findById(key)
+                .map(LeafletContentStore::toBody)
+                .orElse(null)));
+    }
+
+    /**
+     * Carrega vários conteúdos com uma única consulta para os que não estão em memória.
+     */
+    public Map<String, LeafletBody> getAll(Collection<String> hashes) {
+        return bodies.getAll(hashes, missing -> contentRepository.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(LeafletContent::getHash, LeafletContentStore::toBody)));
+    }
+
+    public void evict(Collection<String> hashes) {
+        bodies.invalidateAll(hashes);
+    }
+
+    /**
+     * Compara o armazenamento de bulas com o que seria necessário sem deduplicação.
+     */
+    public LeafletDedupReport report() {
+        Object[] storedRow = contentRepository.summarizeStored().get(0);
+        Object[] patientRow = contentRepository.summarizePatientReferences().get(0);
+        Object[] professionalRow = contentRepository.summarizeProfessionalReferences().get(0);
+
+        long storedTexts = number(storedRow, 0);
+        long referencedTexts = number(patientRow, 0) + number(professionalRow, 0);
+        long referencedBytes = number(patientRow, 2) + number(professionalRow, 2);
+        long storedBytes = number(storedRow, 2);
+
+        return new LeafletDedupReport(
+                referencedTexts,
+                storedTexts,
+                storedTexts > 0 ? referencedTexts / (double) storedTexts : 1.0,
+                number(patientRow, 1) + number(professionalRow, 1),
+                number(storedRow, 1),
+                referencedBytes,
+                storedBytes,
+                Math.max(0, referencedBytes - storedBytes),
+                bodies.estimatedSize());
+    }
+
+    private static long number(Object[] row, int column) {
+        return row[column] instanceof Number number ? number.longValue() : 0;
+    }
+
+    private static LeafletBody toBody(LeafletContent content) {
+        return new LeafletBody(CompressionUtils.gunzip(content.getContentGzip()), content.getContentGzip());
+    }
+
+    /**
+     * Texto de uma bula e os mesmos bytes em gzip, para servir respostas pré-comprimidas.
+     */
+    public record LeafletBody(String text, byte[] gzip) {
+
+        // Strings em Latin-1 ocupam um byte por caractere, o caso comum das bulas
+        int weight() {
+            return text.length() + gzip.length;
+        }
+    }
+
+    /**
+     * @param referencedTexts Textos referenciados pelas bulas, um por registro e parte
+     * @param storedTexts Textos distintos armazenados
+     * @param dedupRatio Textos referenciados por texto armazenado
+     * @param referencedOriginalBytes Tamanho sem compressão que os textos teriam sem deduplicação
+     * @param storedOriginalBytes Tamanho sem compressão dos textos armazenados
+     * @param referencedCompressedBytes Tamanho em gzip que os textos teriam sem deduplicação
+     * @param storedCompressedBytes Tamanho em gzip efetivamente armazenado
+     * @param savedCompressedBytes Bytes em gzip economizados pela deduplicação
+     * @param cachedTexts Textos distintos no cache em memória
+     */
+    public record LeafletDedupReport(long referencedTexts,
+                                     long storedTexts,
+                                     double dedupRatio,
+                                     long referencedOriginalBytes,
+                                     long storedOriginalBytes,
+                                     long referencedCompressedBytes,
+                                     long storedCompressedBytes,
+                                     long savedCompressedBytes,
+                                     long cachedTexts) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.CacheConfig;
+import com.miletoalmeida.leafletapi.dto.LeafletSectionDTO;
+import com.miletoalmeida.leafletapi.model.LeafletSection;
+import com.miletoalmeida.leafletapi.repository.LeafletSectionRepository;
+import com.miletoalmeida.leafletapi.service.scraping.LeafletSectionParser;
+import com.miletoalmeida.leafletapi.util.CompressionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seções das bulas, extraídas uma única vez por conteúdo no momento em que o texto é
+ * gravado. Como os textos são deduplicados por hash, bulas idênticas de registros
+ * diferentes compartilham as mesmas seções.
+ */
+@Slf4j
+@Service
+public class LeafletSectionService {
+
+    private final LeafletSectionRepository sectionRepository;
+    private final LeafletContentStore contentStore;
+
+    public LeafletSectionService(LeafletSectionRepository sectionRepository, LeafletContentStore contentStore) {
+        this.sectionRepository = sectionRepository;
+        this.contentStore = contentStore;
+    }
+
+    /**
+     * Extrai e grava as seções do conteúdo, se ainda não existirem.
+     *
+     * @param contentHash Hash do conteúdo em LeafletContent
+     * @param html O texto da bula
+     */
+    public void index(String contentHash, String html) {
+        if (contentHash == null || sectionRepository.existsByContentHash(contentHash)) {
+            return;
+        }
+        save(contentHash, LeafletSectionParser.parse(html));
+    }
+
+    /**
+     * Seções do conteúdo, sem a parte da bula preenchida. Conteúdos gravados antes da
+     * extração de seções são processados na primeira consulta.
+     */
+    @Cacheable(value = CacheConfig.CACHE_LEAFLET_SECTIONS, key = "#contentHash", unless = "#result.isEmpty()")
+    public List<LeafletSectionDTO> getSections(String contentHash) {
+        List<LeafletSection> stored = sectionRepository.findByContentHashOrderByPosition(contentHash);
+        if (!stored.isEmpty()) {
+            return stored.stream()
+                    .map(section -> new LeafletSectionDTO(section.getName(), section.getTitle(), null,
+                            CompressionUtils.gunzip(section.getHtmlGzip()),
+                            CompressionUtils.gunzip(section.getTextGzip())))
+                    .toList();
+        }
+
+        return contentStore.get(contentHash)
+                .map(body -> {
+                    List<LeafletSectionParser.Section> parsed = LeafletSectionParser.parse(body.text());
+                    save(contentHash, parsed);
+                    return toDTOs(parsed);
+                })
+                .orElse(List.of());
+    }
+
+    /**
+     * Extrai as seções sem gravá-las, para bulas antigas que não têm hash de conteúdo.
+     */
+    public List<LeafletSectionDTO> parse(String html) {
+        return toDTOs(LeafletSectionParser.parse(html));
+    }
+
+    private void save(String contentHash, List<LeafletSectionParser.Section> parsed) {
+        if (parsed.isEmpty()) {
+            return;
+        }
+
+        List<LeafletSection> sections = new ArrayList<>(parsed.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            LeafletSectionParser.Section section = parsed.get(i);
+            sections.add(new LeafletSection(null, contentHash, i, section.name(), section.title(),
+                    CompressionUtils.gzip(section.html()), CompressionUtils.gzip(section.text())));
+        }
+
+        try {
+            sectionRepository.saveAll(sections);
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição extraiu as seções do mesmo conteúdo ao mesmo tempo
+            log.debug("Seções do conteúdo {} já gravadas", contentHash);
+        }
+    }
+
+    private static List<LeafletSectionDTO> toDTOs(List<LeafletSectionParser.Section> parsed) {
+        return parsed.stream()
+                .map(section -> new LeafletSectionDTO(section.name(), section.title(), null, section.html(), section.text()))
+                .toList();
+    }
+}
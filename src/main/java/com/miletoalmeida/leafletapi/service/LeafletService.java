@@ -1,75 +1,343 @@
 package com.miletoalmeida.leafletapi.service;
 
+import com.miletoalmeida.leafletapi.cache.TieredCache;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.BatchItemDTO;
 import com.miletoalmeida.leafletapi.exception.ScrapingException;
 import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.LeafletPart;
+import com.miletoalmeida.leafletapi.dto.LeafletSectionDTO;
+import com.miletoalmeida.leafletapi.dto.ResourceVersion;
 import com.miletoalmeida.leafletapi.repository.LeafletRepository;
 import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.util.CompressionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class LeafletService {
 
     private final LeafletRepository leafletRepository;
+    private final LeafletContentStore contentStore;
+    private final LeafletSectionService sectionService;
     private final AnvisaScrapingService scrapingService;
+    private final RequestCoalescingService coalescingService;
+    private final RefreshAheadService refreshAheadService;
+    private final CacheManager cacheManager;
+    private final AnvisaProperties anvisaProperties;
+
+    private static final String CACHE_LEAFLETS = "leaflets";
 
     // Cache TTL in minutes
     private static final long CACHE_TTL = 60 * 24 * 7; // 7 days
 
     @Autowired
     public LeafletService(LeafletRepository leafletRepository,
-                          AnvisaScrapingService scrapingService) {
+                          LeafletContentStore contentStore,
+                          LeafletSectionService sectionService,
+                          AnvisaScrapingService scrapingService,
+                          RequestCoalescingService coalescingService,
+                          RefreshAheadService refreshAheadService,
+                          CacheManager cacheManager,
+                          AnvisaProperties anvisaProperties) {
         this.leafletRepository = leafletRepository;
+        this.contentStore = contentStore;
+        this.sectionService = sectionService;
         this.scrapingService = scrapingService;
+        this.coalescingService = coalescingService;
+        this.refreshAheadService = refreshAheadService;
+        this.cacheManager = cacheManager;
+        this.anvisaProperties = anvisaProperties;
     }
 
-    @Cacheable(value = "leaflets", key = "#registryNumber")
+    @Cacheable(value = CACHE_LEAFLETS, key = "#registryNumber")
     public Optional<LeafletDTO> getLeafletByRegistryNumber(String registryNumber) throws ScrapingException {
+        // Concurrent misses for the same registry number share a single lookup
+        return coalescingService.execute("leaflet", registryNumber, () -> loadLeaflet(registryNumber));
+    }
+
+    private Optional<LeafletDTO> loadLeaflet(String registryNumber) {
         // Check DB first
         Optional<LeafletDTO> leafletFromDb = leafletRepository.findByMedicineRegistryNumber(registryNumber);
 
         if (leafletFromDb.isPresent()) {
             LeafletDTO leaflet = leafletFromDb.get();
 
-            // Check if cache is still valid
-            if (leaflet.getCacheExpiry().isAfter(LocalDateTime.now())) {
+            // Valid or stale-but-servable rows are answered locally; the caller schedules the refresh
+            if (refreshAheadService.isServable(leaflet.getCacheExpiry())) {
                 return Optional.of(convertToDTO(leaflet));
             }
         }
 
-        // If not in DB or expired, fetch from Anvisa
-        LeafletDTO leafletDTO = scrapingService.getLeaflet(registryNumber);
+        // If not in DB or expired beyond the stale limit, fetch from Anvisa
+        return Optional.of(fetchAndSave(registryNumber));
+    }
+
+    /**
+     * Version of the leaflet for conditional GETs, taken from the in-memory cache or from the
+     * hash columns of the DB row, without loading the leaflet texts. Empty when the row is
+     * missing, no longer servable, or predates content hashes; callers then load the leaflet.
+     */
+    public Optional<ResourceVersion> getLeafletVersion(String registryNumber) {
+        Cache cache = cacheManager.getCache(CACHE_LEAFLETS);
+        Cache.ValueWrapper cached = cache instanceof TieredCache tieredCache
+                ? tieredCache.getLocal(registryNumber)
+                : cache.get(registryNumber);
+        if (cached != null && cached.get() instanceof LeafletDTO leaflet) {
+            return ResourceVersion.ofLeaflet(leaflet);
+        }
 
-        // Save to DB
-        saveLeafletToDb(registryNumber, leafletDTO);
+        return leafletRepository.findVersionByMedicineRegistryNumber(registryNumber)
+                .filter(version -> refreshAheadService.isServable(version.getCacheExpiry()))
+                .flatMap(version -> ResourceVersion.ofLeaflet(version.getPatientContentHash(),
+                        version.getProfessionalContentHash(), version.getLastUpdated(), version.getCacheExpiry()));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getLeafletByRegistryNumber}. Cache and DB access run on the
+     * bounded elastic scheduler; the Anvisa call holds no thread while it waits.
+     */
+    public Mono<LeafletDTO> getLeafletByRegistryNumberReactive(String registryNumber) {
+        return Mono.defer(() -> {
+            Cache cache = cacheManager.getCache(CACHE_LEAFLETS);
+
+            return Mono.fromCallable(() -> cache.get(registryNumber, LeafletDTO.class))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .switchIfEmpty(coalescingService.<Optional<LeafletDTO>>executeMono("leaflet", registryNumber,
+                                    () -> loadLeafletReactive(registryNumber)
+                                            .doOnNext(leaflet -> leaflet.ifPresent(dto -> cache.put(registryNumber, dto))))
+                            .mapNotNull(leaflet -> leaflet.orElse(null)));
+        });
+    }
+
+    private Mono<Optional<LeafletDTO>> loadLeafletReactive(String registryNumber) {
+        return Mono.fromCallable(() -> leafletRepository.findByMedicineRegistryNumber(registryNumber)
+                        .filter(leaflet -> refreshAheadService.isServable(leaflet.getCacheExpiry()))
+                        .map(this::convertToDTO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(Optional::isPresent)
+                .switchIfEmpty(Mono.defer(() -> fetchLeafletReactive(registryNumber)));
+    }
 
-        return Optional.of(leafletDTO);
+    private Mono<Optional<LeafletDTO>> fetchLeafletReactive(String registryNumber) {
+        return scrapingService.getLeafletReactive(registryNumber)
+                .publishOn(Schedulers.boundedElastic())
+                .map(leafletDTO -> Optional.of(convertToDTO(saveLeafletToDb(registryNumber, leafletDTO))));
     }
 
-    private void saveLeafletToDb(String registryNumber, LeafletDTO leafletDTO) {
+    /**
+     * Fetches several leaflets at once. In-memory cache hits and DB rows (one IN query) are
+     * answered locally; the rest are fetched from Anvisa with bounded concurrency.
+     *
+     * @return one item per distinct registry number, in request order, each with its own status
+     */
+    public Mono<List<BatchItemDTO<LeafletDTO>>> getLeafletsByRegistryNumbers(List<String> registryNumbers) {
+        return Mono.defer(() -> {
+            List<String> distinct = registryNumbers.stream().distinct().collect(Collectors.toList());
+            Map<String, BatchItemDTO<LeafletDTO>> results = new ConcurrentHashMap<>();
+            List<String> pending = new ArrayList<>();
+            Cache cache = cacheManager.getCache(CACHE_LEAFLETS);
+
+            for (String registryNumber : distinct) {
+                if (registryNumber == null || !registryNumber.matches("\\d+")) {
+                    results.put(registryNumber, BatchItemDTO.invalid(registryNumber,
+                            "O número de registro deve conter apenas números"));
+                    continue;
+                }
+
+                Cache.ValueWrapper cached = cache instanceof TieredCache tieredCache
+                        ? tieredCache.getLocal(registryNumber)
+                        : cache.get(registryNumber);
+                if (cached != null && cached.get() instanceof LeafletDTO leaflet) {
+                    results.put(registryNumber, BatchItemDTO.found(registryNumber, leaflet));
+                } else {
+                    pending.add(registryNumber);
+                }
+            }
+
+            return Mono.fromCallable(() -> findServable(pending))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(fromDb -> {
+                        fromDb.forEach((registryNumber, leaflet) ->
+                                results.put(registryNumber, BatchItemDTO.found(registryNumber, leaflet)));
+
+                        List<String> misses = pending.stream()
+                                .filter(registryNumber -> !fromDb.containsKey(registryNumber))
+                                .collect(Collectors.toList());
+
+                        return Flux.fromIterable(misses)
+                                .flatMap(registryNumber -> fetchBatchItem(registryNumber, cache),
+                                        anvisaProperties.getBatchConcurrency());
+                    })
+                    .doOnNext(item -> results.put(item.getRegistryNumber(), item))
+                    .then(Mono.fromCallable(() -> distinct.stream()
+                            .map(results::get)
+                            .collect(Collectors.toList())));
+        });
+    }
+
+    private Map<String, LeafletDTO> findServable(List<String> registryNumbers) {
+        if (registryNumbers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<LeafletDTO> servable = leafletRepository.findByMedicineRegistryNumberIn(registryNumbers).stream()
+                .filter(leaflet -> refreshAheadService.isServable(leaflet.getCacheExpiry()))
+                .collect(Collectors.toList());
+
+        // Load every referenced text with one query so convertToDTO only hits memory
+        contentStore.getAll(servable.stream()
+                .flatMap(leaflet -> Stream.of(leaflet.getPatientContentHash(), leaflet.getProfessionalContentHash()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        return servable.stream()
+                .collect(Collectors.toMap(LeafletDTO::getMedicineRegistryNumber, this::convertToDTO,
+                        (first, second) -> first));
+    }
+
+    private Mono<BatchItemDTO<LeafletDTO>> fetchBatchItem(String registryNumber, Cache cache) {
+        return coalescingService.<Optional<LeafletDTO>>executeMono("leaflet", registryNumber,
+                        () -> fetchLeafletReactive(registryNumber)
+                                .doOnNext(leaflet -> leaflet.ifPresent(dto -> cache.put(registryNumber, dto))))
+                .map(leaflet -> leaflet
+                        .map(dto -> BatchItemDTO.found(registryNumber, dto))
+                        .orElseGet(() -> BatchItemDTO.notFound(registryNumber)))
+                .onErrorResume(e -> Mono.just(BatchItemDTO.error(registryNumber, e.getMessage())));
+    }
+
+    /**
+     * Returns one part of the leaflet as stored, gzip-compressed. The bytes come from the
+     * cached DTO when present, then from the shared content store, then from the legacy
+     * per-row column; rows written before compression was introduced are compressed on the fly.
+     */
+    public byte[] getCompressedLeaflet(LeafletDTO leaflet, LeafletPart part) {
+        byte[] compressed = part == LeafletPart.PATIENT
+                ? leaflet.getPatientLeafletGzip()
+                : leaflet.getProfessionalLeafletGzip();
+        if (compressed != null) {
+            return compressed;
+        }
+
+        String hash = part == LeafletPart.PATIENT
+                ? leaflet.getPatientContentHash()
+                : leaflet.getProfessionalContentHash();
+        Optional<LeafletContentStore.LeafletBody> body = contentStore.get(hash);
+        if (body.isPresent()) {
+            return body.get().gzip();
+        }
+
+        String registryNumber = leaflet.getMedicineRegistryNumber();
+        Optional<byte[]> stored = part == LeafletPart.PATIENT
+                ? leafletRepository.findPatientLeafletGzip(registryNumber)
+                : leafletRepository.findProfessionalLeafletGzip(registryNumber);
+
+        return stored.orElseGet(() -> CompressionUtils.gzip(Objects.toString(
+                part == LeafletPart.PATIENT ? leaflet.getPatientLeaflet() : leaflet.getProfessionalLeaflet(),
+                "")));
+    }
+
+    /**
+     * Sections of the leaflet, patient part first. Sections were extracted once when the text
+     * was stored; legacy rows without a content hash are parsed on the fly.
+     *
+     * @param part Only this part, or both when null
+     */
+    public List<LeafletSectionDTO> getLeafletSections(LeafletDTO leaflet, LeafletPart part) {
+        List<LeafletPart> parts = part != null ? List.of(part) : List.of(LeafletPart.values());
+        List<LeafletSectionDTO> sections = new ArrayList<>();
+
+        for (LeafletPart current : parts) {
+            boolean patient = current == LeafletPart.PATIENT;
+            String hash = patient ? leaflet.getPatientContentHash() : leaflet.getProfessionalContentHash();
+            List<LeafletSectionDTO> partSections = hash != null
+                    ? sectionService.getSections(hash)
+                    : sectionService.parse(patient ? leaflet.getPatientLeaflet() : leaflet.getProfessionalLeaflet());
+
+            // Cached lists are shared, so each section is copied before the part is set
+            partSections.forEach(section -> sections.add(new LeafletSectionDTO(
+                    section.getName(), section.getTitle(), current, section.getHtml(), section.getText())));
+        }
+        return sections;
+    }
+
+    /**
+     * Fetches the leaflet from Anvisa and replaces both the DB row and the cache entry.
+     */
+    @CachePut(value = CACHE_LEAFLETS, key = "#registryNumber")
+    public Optional<LeafletDTO> refreshLeaflet(String registryNumber) throws ScrapingException {
+        return Optional.of(coalescingService.execute("leaflet_refresh", registryNumber,
+                () -> fetchAndSave(registryNumber)));
+    }
+
+    private LeafletDTO fetchAndSave(String registryNumber) {
+        LeafletDTO leafletDTO = scrapingService.getLeaflet(registryNumber);
+        return convertToDTO(saveLeafletToDb(registryNumber, leafletDTO));
+    }
+
+    private LeafletDTO saveLeafletToDb(String registryNumber, LeafletDTO leafletDTO) {
         LeafletDTO leaflet = leafletRepository.findByMedicineRegistryNumber(registryNumber)
                 .orElse(new LeafletDTO());
 
-        // Update fields
+        // Update fields; leaflet bodies are stored once per content hash and the row only points at them
         leaflet.setMedicineRegistryNumber(registryNumber);
-        leaflet.setPatientLeaflet(leafletDTO.getPatientLeaflet());
-        leaflet.setProfessionalLeaflet(leafletDTO.getProfessionalLeaflet());
+        leaflet.setPatientContentHash(contentStore.store(leafletDTO.getPatientLeaflet()));
+        leaflet.setProfessionalContentHash(contentStore.store(leafletDTO.getProfessionalLeaflet()));
+        sectionService.index(leaflet.getPatientContentHash(), leafletDTO.getPatientLeaflet());
+        sectionService.index(leaflet.getProfessionalContentHash(), leafletDTO.getProfessionalLeaflet());
+        leaflet.setPatientLeaflet(null);
+        leaflet.setProfessionalLeaflet(null);
+        leaflet.setPatientLeafletGzip(null);
+        leaflet.setProfessionalLeafletGzip(null);
 
         // Update cache metadata
         leaflet.setLastUpdated(LocalDateTime.now());
         leaflet.setCacheExpiry(LocalDateTime.now().plusMinutes(CACHE_TTL));
 
-        leafletRepository.save(leaflet);
+        return leafletRepository.save(leaflet);
     }
 
     private LeafletDTO convertToDTO(LeafletDTO leaflet) {
         LeafletDTO dto = new LeafletDTO();
-        dto.setPatientLeaflet(leaflet.getPatientLeaflet());
-        dto.setProfessionalLeaflet(leaflet.getProfessionalLeaflet());
+        dto.setMedicineRegistryNumber(leaflet.getMedicineRegistryNumber());
+        dto.setPatientContentHash(leaflet.getPatientContentHash());
+        dto.setProfessionalContentHash(leaflet.getProfessionalContentHash());
+
+        // Texts from the content store are shared with every other registry number that has the same leaflet
+        Optional<LeafletContentStore.LeafletBody> patient = contentStore.get(leaflet.getPatientContentHash());
+        Optional<LeafletContentStore.LeafletBody> professional = contentStore.get(leaflet.getProfessionalContentHash());
+        dto.setPatientLeaflet(patient.map(LeafletContentStore.LeafletBody::text)
+                .orElseGet(() -> legacyText(leaflet.getPatientLeafletGzip(), leaflet.getPatientLeaflet())));
+        dto.setProfessionalLeaflet(professional.map(LeafletContentStore.LeafletBody::text)
+                .orElseGet(() -> legacyText(leaflet.getProfessionalLeafletGzip(), leaflet.getProfessionalLeaflet())));
+        dto.setPatientLeafletGzip(patient.map(LeafletContentStore.LeafletBody::gzip)
+                .orElse(leaflet.getPatientLeafletGzip()));
+        dto.setProfessionalLeafletGzip(professional.map(LeafletContentStore.LeafletBody::gzip)
+                .orElse(leaflet.getProfessionalLeafletGzip()));
+        dto.setLastUpdated(leaflet.getLastUpdated());
+        dto.setCacheExpiry(leaflet.getCacheExpiry());
         return dto;
     }
+
+    private String legacyText(byte[] gzip, String text) {
+        return gzip != null ? CompressionUtils.gunzip(gzip) : text;
+    }
 }
\ No newline at end of file
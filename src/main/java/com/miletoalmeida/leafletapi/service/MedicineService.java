@@ -1,22 +1,43 @@
 package com.miletoalmeida.leafletapi.service;
 
+import com.miletoalmeida.leafletapi.cache.TieredCache;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.BatchItemDTO;
 import com.miletoalmeida.leafletapi.dto.MedicineDTO;
 import com.miletoalmeida.leafletapi.dto.LeafletDTO;
 import com.miletoalmeida.leafletapi.exception.ScrapingException;
 import com.miletoalmeida.leafletapi.model.Medicine;
 import com.miletoalmeida.leafletapi.repository.MedicineRepository;
 import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import com.miletoalmeida.leafletapi.service.search.MedicineSearchIndex;
+import com.miletoalmeida.leafletapi.service.search.MedicineSuggestIndex;
+import com.miletoalmeida.leafletapi.util.TextNormalizer;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.Objects;
 
@@ -27,16 +48,33 @@ public class MedicineService {
 
     private static final String CACHE_MEDICINES = "medicines";
     private static final String CACHE_MEDICINE_DETAILS = "medicine_details";
+    private static final String CACHE_MEDICINE_PAGES = "medicine_pages";
     private static final int CACHE_DAYS = 7;
     
     private final AnvisaScrapingService anvisaScrapingService;
     private final MedicineRepository medicineRepository;
+    private final RequestCoalescingService coalescingService;
+    private final RefreshAheadService refreshAheadService;
+    private final CacheManager cacheManager;
+    private final AnvisaProperties anvisaProperties;
+    private final MedicineSearchIndex searchIndex;
+    private final MedicineSuggestIndex suggestIndex;
 
     @Timed(value = "medicine.search", description = "Tempo para buscar medicamentos")
-    @Cacheable(value = CACHE_MEDICINES, key = "#query.toLowerCase()", unless = "#result.isEmpty()")
+    @Cacheable(value = CACHE_MEDICINES, key = "T(com.miletoalmeida.leafletapi.util.TextNormalizer).normalize(#query)", unless = "#result.isEmpty()")
     public List<MedicineDTO> searchMedicines(String query) {
         validateSearchQuery(query);
-        
+
+        // O índice local responde sem ir à Anvisa quando tem resultados suficientes
+        Optional<List<MedicineDTO>> local = searchIndex.searchCovered(query);
+        if (local.isPresent()) {
+            return local.get();
+        }
+
+        return coalescingService.execute("search", query, () -> loadMedicines(query));
+    }
+
+    private List<MedicineDTO> loadMedicines(String query) {
         try {
             log.info("Buscando medicamentos com o termo: {}", query);
             List<MedicineDTO> scrapedMedicines = anvisaScrapingService.searchMedicines(query);
@@ -47,57 +85,321 @@ public class MedicineService {
             }
             
             // Salva os medicamentos encontrados no banco
-            List<Medicine> medicines = scrapedMedicines.stream()
-                .map(dto -> {
-                    Medicine medicine = dto.toEntity();
-                    medicine.setLastUpdated(LocalDateTime.now());
-                    medicine.setCachingTime(LocalDateTime.now().plusDays(7));
-                    return medicine;
-                })
-                .collect(Collectors.toList());
-            
-            medicineRepository.saveAll(medicines);
+            List<MedicineDTO> medicines = saveMedicines(scrapedMedicines);
             
             log.info("Encontrados {} medicamentos para a busca: {}", medicines.size(), query);
-            return scrapedMedicines;
+            return medicines;
         } catch (ScrapingException e) {
             log.error("Erro ao buscar medicamentos: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Busca paginada, mapeada diretamente para a paginação da Anvisa.
+     *
+     * Cada página fica em cache separadamente. Ao servir a página N, a página N+1 é
+     * buscada em segundo plano para que a navegação seguinte responda do cache.
+     *
+     * @param query Termo de busca
+     * @param page Página, começando em 0
+     * @param size Quantidade de itens por página
+     */
+    @Timed(value = "medicine.search_page", description = "Tempo para buscar uma página de medicamentos")
+    public Page<MedicineDTO> searchMedicines(String query, int page, int size) {
+        validateSearchQuery(query);
+        validatePage(page, size);
+
+        AnvisaSearchPage result = loadPage(query, page, size);
+        if (!result.isLast()) {
+            prefetchPage(query, page + 1, size);
+        }
+
+        return new PageImpl<>(result.getContent(), PageRequest.of(page, size), result.getTotalElements());
+    }
+
+    public int getDefaultPageSize() {
+        return anvisaProperties.getSearch().getPageSize();
+    }
+
+    private AnvisaSearchPage loadPage(String query, int page, int size) {
+        Cache cache = cacheManager.getCache(CACHE_MEDICINE_PAGES);
+        String cacheKey = pageKey(query, page, size);
+
+        AnvisaSearchPage cached = cache.get(cacheKey, AnvisaSearchPage.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Fora de cache.get(key, loader), que embrulharia a ScrapingException em ValueRetrievalException
+        AnvisaSearchPage result = coalescingService.execute("search_page", cacheKey,
+                () -> fetchPage(query, page, size));
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    private AnvisaSearchPage fetchPage(String query, int page, int size) {
+        log.info("Buscando página {} de medicamentos com o termo: {}", page, query);
+        AnvisaSearchPage result = Objects.requireNonNull(
+            anvisaScrapingService.searchMedicinesPage(query, page + 1, size).block()
+        );
+
+        result.setContent(saveMedicines(result.getContent()));
+        return result;
+    }
+
+    private void prefetchPage(String query, int page, int size) {
+        Cache cache = cacheManager.getCache(CACHE_MEDICINE_PAGES);
+        if (getLocal(cache, pageKey(query, page, size)) != null) {
+            return;
+        }
+
+        Mono.fromRunnable(() -> loadPage(query, page, size))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                    null,
+                    e -> log.warn("Falha ao pré-carregar a página {} da busca {}: {}", page, query, e.getMessage())
+                );
+    }
+
+    private String pageKey(String query, int page, int size) {
+        return TextNormalizer.normalize(query) + ":" + page + ":" + size;
+    }
+
+    /**
+     * Busca tolerante a erros de digitação no catálogo local. Não consulta a Anvisa;
+     * uma lista vazia indica que o catálogo não tem nada próximo da consulta ou que o
+     * índice local está desabilitado ou ainda não pronto, e quem chama recorre à busca
+     * normal.
+     */
+    @Timed(value = "medicine.search_fuzzy", description = "Tempo para a busca fuzzy local")
+    public List<MedicineDTO> searchMedicinesFuzzy(String query) {
+        validateSearchQuery(query);
+        return searchIndex.searchFuzzy(query);
+    }
+
+    /**
+     * Sugestões para autocompletar a partir do catálogo local. Nunca consulta a Anvisa.
+     *
+     * @param prefix Prefixo digitado
+     * @param limit Quantidade máxima de sugestões
+     */
+    public List<String> suggestMedicines(String prefix, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("O limite de sugestões deve ser positivo");
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Conta uma busca na popularidade das sugestões. Chamado pelos controllers a cada
+     * requisição, já que o corpo de {@link #searchMedicines(String)} não executa quando a
+     * resposta vem do cache.
+     */
+    public void recordSearch(String query) {
+        suggestIndex.recordSearch(query);
+    }
+
     @Timed(value = "medicine.get_details", description = "Tempo para obter detalhes do medicamento")
     @Cacheable(value = CACHE_MEDICINE_DETAILS, key = "#registryNumber")
     public Optional<MedicineDTO> getMedicineByRegistryNumber(String registryNumber) {
         validateRegistryNumber(registryNumber);
-        LocalDateTime now = LocalDateTime.now();
-        
+        return coalescingService.execute("medicine", registryNumber, () -> loadMedicine(registryNumber));
+    }
+
+    /**
+     * Variante não bloqueante de {@link #searchMedicines}. Cache e banco são acessados
+     * no scheduler elástico; a requisição à Anvisa não ocupa threads enquanto aguarda.
+     */
+    public Mono<List<MedicineDTO>> searchMedicinesReactive(String query) {
+        return Mono.defer(() -> {
+            validateSearchQuery(query);
+            String cacheKey = TextNormalizer.normalize(query);
+            Cache cache = cacheManager.getCache(CACHE_MEDICINES);
+
+            Optional<List<MedicineDTO>> local = searchIndex.searchCovered(query);
+            if (local.isPresent()) {
+                return Mono.just(local.get());
+            }
+
+            return Mono.<List<MedicineDTO>>fromCallable(() -> getCached(cache, cacheKey))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .switchIfEmpty(coalescingService.executeMono("search", query, () ->
+                            anvisaScrapingService.searchMedicinesReactive(query)
+                                    .collectList()
+                                    .publishOn(Schedulers.boundedElastic())
+                                    .map(scraped -> {
+                                        List<MedicineDTO> medicines = saveMedicines(scraped);
+                                        if (!medicines.isEmpty()) {
+                                            cache.put(cacheKey, medicines);
+                                        }
+                                        return medicines;
+                                    })));
+        });
+    }
+
+    /**
+     * Busca em streaming, sem o limite de uma página.
+     *
+     * As páginas da Anvisa são pedidas conforme o cliente consome os resultados e cada
+     * página é salva no banco antes de ser emitida. Cancelar a assinatura interrompe a busca.
+     */
+    public Flux<MedicineDTO> streamMedicines(String query) {
+        validateSearchQuery(query);
+        AnvisaProperties.Search search = anvisaProperties.getSearch();
+
+        return anvisaScrapingService.streamMedicinePages(query, search.getPageSize(), search.getMaxPages())
+                .concatMap(page -> Mono.fromCallable(() -> saveMedicines(page.getContent()))
+                        .subscribeOn(Schedulers.boundedElastic()), 0)
+                .concatMapIterable(medicines -> medicines, 1)
+                .doOnComplete(() -> log.info("Busca em streaming concluída para o termo: {}", query))
+                .doOnCancel(() -> log.info("Busca em streaming cancelada para o termo: {}", query));
+    }
+
+    /**
+     * Variante não bloqueante de {@link #getMedicineByRegistryNumber}.
+     */
+    public Mono<MedicineDTO> getMedicineByRegistryNumberReactive(String registryNumber) {
+        return Mono.defer(() -> {
+            validateRegistryNumber(registryNumber);
+            Cache cache = cacheManager.getCache(CACHE_MEDICINE_DETAILS);
+
+            return Mono.<MedicineDTO>fromCallable(() -> getCached(cache, registryNumber))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .switchIfEmpty(coalescingService.<Optional<MedicineDTO>>executeMono("medicine", registryNumber,
+                                    () -> loadMedicineReactive(registryNumber)
+                                            .doOnNext(medicine -> medicine.ifPresent(dto -> cache.put(registryNumber, dto))))
+                            .mapNotNull(medicine -> medicine.orElse(null)));
+        });
+    }
+
+    private Mono<Optional<MedicineDTO>> loadMedicineReactive(String registryNumber) {
+        return Mono.fromCallable(() -> medicineRepository.findByRegistryNumber(registryNumber)
+                        .filter(medicine -> refreshAheadService.isServable(medicine.getCachingTime()))
+                        .map(MedicineDTO::new))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(Optional::isPresent)
+                .switchIfEmpty(Mono.defer(() -> fetchMedicineReactive(registryNumber)));
+    }
+
+    private Mono<Optional<MedicineDTO>> fetchMedicineReactive(String registryNumber) {
+        return anvisaScrapingService.searchMedicinesReactive(registryNumber)
+                .filter(m -> registryNumber.equals(m.getRegistryNumber()))
+                .next()
+                .publishOn(Schedulers.boundedElastic())
+                .map(dto -> saveMedicines(List.of(dto)).stream().findFirst())
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * Busca vários medicamentos de uma vez.
+     *
+     * Acertos no cache em memória e no banco (uma única consulta IN) são respondidos
+     * localmente; os demais são buscados na Anvisa com concorrência limitada.
+     *
+     * @param registryNumbers Números de registro, na ordem desejada da resposta
+     * @return um item por número de registro distinto, com status individual
+     */
+    public Mono<List<BatchItemDTO<MedicineDTO>>> getMedicinesByRegistryNumbers(List<String> registryNumbers) {
+        return Mono.defer(() -> {
+            List<String> distinct = registryNumbers.stream().distinct().collect(Collectors.toList());
+            Map<String, BatchItemDTO<MedicineDTO>> results = new ConcurrentHashMap<>();
+            List<String> pending = new ArrayList<>();
+            Cache cache = cacheManager.getCache(CACHE_MEDICINE_DETAILS);
+
+            for (String registryNumber : distinct) {
+                if (!isValidRegistryNumber(registryNumber)) {
+                    results.put(registryNumber, BatchItemDTO.invalid(registryNumber,
+                            "O número de registro deve conter apenas números"));
+                    continue;
+                }
+
+                MedicineDTO cached = getLocal(cache, registryNumber);
+                if (cached != null) {
+                    results.put(registryNumber, BatchItemDTO.found(registryNumber, cached));
+                } else {
+                    pending.add(registryNumber);
+                }
+            }
+
+            return Mono.fromCallable(() -> findServable(pending))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(fromDb -> {
+                        fromDb.forEach((registryNumber, medicine) ->
+                                results.put(registryNumber, BatchItemDTO.found(registryNumber, medicine)));
+
+                        List<String> misses = pending.stream()
+                                .filter(registryNumber -> !fromDb.containsKey(registryNumber))
+                                .collect(Collectors.toList());
+
+                        return Flux.fromIterable(misses)
+                                .flatMap(registryNumber -> fetchBatchItem(registryNumber, cache),
+                                        anvisaProperties.getBatchConcurrency());
+                    })
+                    .doOnNext(item -> results.put(item.getRegistryNumber(), item))
+                    .then(Mono.fromCallable(() -> distinct.stream()
+                            .map(results::get)
+                            .collect(Collectors.toList())));
+        });
+    }
+
+    private Map<String, MedicineDTO> findServable(List<String> registryNumbers) {
+        if (registryNumbers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return medicineRepository.findByRegistryNumberIn(registryNumbers).stream()
+                .filter(medicine -> refreshAheadService.isServable(medicine.getCachingTime()))
+                .collect(Collectors.toMap(Medicine::getRegistryNumber, MedicineDTO::new));
+    }
+
+    private Mono<BatchItemDTO<MedicineDTO>> fetchBatchItem(String registryNumber, Cache cache) {
+        return coalescingService.<Optional<MedicineDTO>>executeMono("medicine", registryNumber,
+                        () -> fetchMedicineReactive(registryNumber)
+                                .doOnNext(medicine -> medicine.ifPresent(dto -> cache.put(registryNumber, dto))))
+                .map(medicine -> medicine
+                        .map(dto -> BatchItemDTO.found(registryNumber, dto))
+                        .orElseGet(() -> BatchItemDTO.notFound(registryNumber)))
+                .onErrorResume(e -> {
+                    log.warn("Erro ao buscar medicamento {} no lote: {}", registryNumber, e.getMessage());
+                    return Mono.just(BatchItemDTO.error(registryNumber, e.getMessage()));
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getLocal(Cache cache, Object key) {
+        Cache.ValueWrapper wrapper = cache instanceof TieredCache tieredCache
+                ? tieredCache.getLocal(key)
+                : cache.get(key);
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getCached(Cache cache, Object key) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    /**
+     * Busca o medicamento na Anvisa e substitui o registro no banco e no cache.
+     */
+    @CachePut(value = CACHE_MEDICINE_DETAILS, key = "#registryNumber")
+    public Optional<MedicineDTO> refreshMedicine(String registryNumber) {
+        validateRegistryNumber(registryNumber);
+        return coalescingService.execute("medicine_refresh", registryNumber, () -> fetchMedicine(registryNumber));
+    }
+
+    private Optional<MedicineDTO> loadMedicine(String registryNumber) {
         try {
             Optional<Medicine> medicineFromDb = medicineRepository.findByRegistryNumber(registryNumber);
             
-            if (medicineFromDb.isPresent() && medicineFromDb.get().getCachingTime().isAfter(now)) {
+            // Registros válidos ou stale dentro do limite são servidos localmente
+            if (medicineFromDb.isPresent() && refreshAheadService.isServable(medicineFromDb.get().getCachingTime())) {
                 Medicine medicine = medicineFromDb.get();
                 return Optional.of(new MedicineDTO(medicine));
             }
             
-            log.info("Buscando medicamento com registro: {}", registryNumber);
-            List<MedicineDTO> medicines = Objects.requireNonNull(
-                anvisaScrapingService.searchMedicines(registryNumber)
-            );
-            
-            Optional<MedicineDTO> medicineDto = medicines.stream()
-                    .filter(m -> registryNumber.equals(m.getRegistryNumber()))
-                    .findFirst();
-            
-            if (medicineDto.isPresent()) {
-                Medicine medicine = medicineDto.get().toEntity();
-                medicine.setLastUpdated(now);
-                medicine.setCachingTime(now.plusDays(CACHE_DAYS));
-                medicineRepository.save(medicine);
-            }
-            
-            return medicineDto;
-            
+            return fetchMedicine(registryNumber);
         } catch (ScrapingException e) {
             log.error("Erro ao buscar medicamento por registro: {}", e.getMessage(), e);
             throw e;
@@ -107,6 +409,62 @@ public class MedicineService {
         }
     }
 
+    private Optional<MedicineDTO> fetchMedicine(String registryNumber) {
+        log.info("Buscando medicamento com registro: {}", registryNumber);
+        List<MedicineDTO> medicines = Objects.requireNonNull(
+            anvisaScrapingService.searchMedicines(registryNumber)
+        );
+        
+        Optional<MedicineDTO> medicineDto = medicines.stream()
+                .filter(m -> registryNumber.equals(m.getRegistryNumber()))
+                .findFirst();
+        
+        return medicineDto.flatMap(dto -> saveMedicines(List.of(dto)).stream().findFirst());
+    }
+
+    /**
+     * Insere ou atualiza medicamentos pelo número de registro.
+     *
+     * @param medicines Medicamentos obtidos da Anvisa
+     * @return medicamentos salvos, com datas de atualização e expiração
+     */
+    public List<MedicineDTO> saveMedicines(Collection<MedicineDTO> medicines) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, MedicineDTO> byRegistryNumber = new LinkedHashMap<>();
+        medicines.stream()
+                .filter(dto -> StringUtils.hasText(dto.getRegistryNumber()))
+                .forEach(dto -> byRegistryNumber.putIfAbsent(dto.getRegistryNumber(), dto));
+
+        if (byRegistryNumber.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Medicine> existing = medicineRepository.findByRegistryNumberIn(byRegistryNumber.keySet()).stream()
+                .collect(Collectors.toMap(Medicine::getRegistryNumber, medicine -> medicine));
+
+        List<Medicine> entities = byRegistryNumber.values().stream()
+                .map(dto -> {
+                    Medicine medicine = dto.toEntity();
+                    Medicine current = existing.get(dto.getRegistryNumber());
+                    if (current != null) {
+                        medicine.setId(current.getId());
+                        medicine.setLastAccessed(current.getLastAccessed());
+                    }
+                    medicine.setLastUpdated(now);
+                    medicine.setCachingTime(now.plusDays(CACHE_DAYS));
+                    return medicine;
+                })
+                .collect(Collectors.toList());
+
+        List<MedicineDTO> saved = medicineRepository.saveAll(entities).stream()
+                .map(MedicineDTO::new)
+                .collect(Collectors.toList());
+
+        searchIndex.index(saved);
+        return saved;
+    }
+
     @Timed(value = "medicine.get_leaflet", description = "Tempo para obter bula do medicamento")
     @Cacheable(value = "leaflets", key = "#registryNumber")
     public LeafletDTO getLeaflet(String registryNumber) {
@@ -114,7 +472,8 @@ public class MedicineService {
         
         try {
             log.info("Buscando bula do medicamento com registro: {}", registryNumber);
-            return anvisaScrapingService.getLeaflet(registryNumber);
+            return coalescingService.execute("leaflet_scrape", registryNumber,
+                    () -> anvisaScrapingService.getLeaflet(registryNumber));
         } catch (ScrapingException e) {
             log.error("Erro ao buscar bula do medicamento: {}", e.getMessage(), e);
             throw e;
@@ -130,12 +489,26 @@ public class MedicineService {
         }
     }
 
+    private void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("A página não pode ser negativa");
+        }
+        int maxPageSize = anvisaProperties.getSearch().getMaxPageSize();
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + maxPageSize);
+        }
+    }
+
     private void validateRegistryNumber(String registryNumber) {
         if (!StringUtils.hasText(registryNumber)) {
             throw new IllegalArgumentException("O número de registro não pode estar vazio");
         }
-        if (!registryNumber.matches("\\d+")) {
+        if (!isValidRegistryNumber(registryNumber)) {
             throw new IllegalArgumentException("O número de registro deve conter apenas números");
         }
     }
+
+    private boolean isValidRegistryNumber(String registryNumber) {
+        return registryNumber != null && registryNumber.matches("\\d+");
+    }
 }
\ No newline at end of file
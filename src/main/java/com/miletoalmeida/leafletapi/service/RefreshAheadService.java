@@ -0,0 +1,140 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.RefreshProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Atualiza em segundo plano entradas próximas da expiração (refresh-ahead) e
+ * permite servir entradas expiradas enquanto uma única atualização roda
+ * (stale-while-revalidate).
+ */
+@Slf4j
+@Service
+public class RefreshAheadService {
+
+    private final RefreshProperties properties;
+    private final AsyncTaskExecutor taskExecutor;
+    private final MeterRegistry meterRegistry;
+    private final AccessTracker accessTracker;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RefreshAheadService(RefreshProperties properties,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                               AsyncTaskExecutor taskExecutor,
+                               MeterRegistry meterRegistry,
+                               AccessTracker accessTracker) {
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        this.accessTracker = accessTracker;
+    }
+
+    /**
+     * Indica se uma entrada persistida ainda pode ser servida sem buscar na Anvisa.
+     *
+     * @param expiresAt Data de expiração da entrada
+     * @return true se a entrada estiver válida ou dentro do limite de stale
+     */
+    public boolean isServable(LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (expiresAt.isAfter(now)) {
+            return true;
+        }
+        return properties.isEnabled() && expiresAt.plus(properties.getMaxStale()).isAfter(now);
+    }
+
+    /**
+     * Registra que uma entrada foi servida e agenda sua atualização quando necessário.
+     *
+     * @param operation Nome da operação (ex.: "leaflet", "medicine")
+     * @param key Chave da entrada
+     * @param expiresAt Data de expiração da entrada servida
+     * @param refresher Ação que busca novamente a entrada e atualiza banco e cache
+     * @return true se a entrada servida já estava expirada
+     */
+    public boolean onServed(String operation, String key, LocalDateTime expiresAt, Runnable refresher) {
+        accessTracker.record(operation, key);
+        if (expiresAt == null) {
+            return false;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean stale = !expiresAt.isAfter(now);
+
+        if (stale) {
+            meterRegistry.counter("cache.stale.served", "operation", operation).increment();
+        }
+
+        if (properties.isEnabled() && (stale || expiresAt.minus(properties.getAheadWindow()).isBefore(now))) {
+            scheduleRefresh(operation, key, refresher);
+        }
+
+        return stale;
+    }
+
+    /**
+     * Atualiza a entrada na thread atual, a menos que uma atualização dela já esteja
+     * em andamento.
+     *
+     * @return false se a atualização falhou
+     */
+    public boolean refreshNow(String operation, String key, Runnable refresher) {
+        String refreshKey = operation + ":" + key;
+        if (!refreshing.add(refreshKey)) {
+            return true;
+        }
+
+        try {
+            return runRefresh(operation, refreshKey, refresher);
+        } finally {
+            refreshing.remove(refreshKey);
+        }
+    }
+
+    private void scheduleRefresh(String operation, String key, Runnable refresher) {
+        String refreshKey = operation + ":" + key;
+        if (!refreshing.add(refreshKey)) {
+            return;
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    runRefresh(operation, refreshKey, refresher);
+                } finally {
+                    refreshing.remove(refreshKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(refreshKey);
+            log.warn("Atualização em segundo plano rejeitada para {}: {}", refreshKey, e.getMessage());
+        }
+    }
+
+    private boolean runRefresh(String operation, String refreshKey, Runnable refresher) {
+        try {
+            log.info("Atualizando em segundo plano: {}", refreshKey);
+            refresher.run();
+            meterRegistry.counter("cache.refresh.completed", "operation", operation).increment();
+            return true;
+        } catch (RuntimeException e) {
+            meterRegistry.counter("cache.refresh.failed", "operation", operation).increment();
+            log.warn("Falha ao atualizar {} em segundo plano: {}", refreshKey, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.util.TextNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Tabela de requisições em andamento (single-flight).
+ *
+ * Chamadas concorrentes para a mesma operação e chave aguardam uma única
+ * execução e recebem o mesmo resultado, inclusive a mesma exceção.
+ */
+@Slf4j
+@Service
+public class RequestCoalescingService {
+
+    private static final String METRIC_COALESCED = "anvisa.requests.coalesced";
+    private static final String METRIC_EXECUTED = "anvisa.requests.executed";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("anvisa.requests.in_flight", inFlight, Map::size)
+                .description("Requisições únicas em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o loader uma única vez por operação e chave normalizada.
+     *
+     * @param operation Nome da operação (ex.: "leaflet", "medicine")
+     * @param key Chave da requisição, normalizada antes do uso
+     * @param loader Função que efetivamente busca o valor
+     * @return resultado compartilhado entre todos os chamadores concorrentes
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String key, Supplier<T> loader) {
+        String flightKey = flightKey(operation, key);
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, created);
+
+        if (existing != null) {
+            counter(METRIC_COALESCED, operation).increment();
+            log.debug("Requisição agrupada com execução em andamento: {}", flightKey);
+            return (T) await(existing);
+        }
+
+        counter(METRIC_EXECUTED, operation).increment();
+        try {
+            T result = loader.get();
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, created);
+        }
+    }
+
+    /**
+     * Variante reativa de {@link #execute}. Compartilha a mesma tabela, então chamadas
+     * bloqueantes e reativas para a mesma operação e chave também são agrupadas.
+     *
+     * O loader é assinado uma vez, fora da assinatura de quem o iniciou: todos os
+     * chamadores, inclusive o primeiro, apenas aguardam o resultado. Cancelar uma
+     * assinatura (cliente desconectado, item de lote descartado) não cancela a busca
+     * nem falha os demais chamadores da mesma chave.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> executeMono(String operation, String key, Supplier<Mono<T>> loader) {
+        return Mono.defer(() -> {
+            String flightKey = flightKey(operation, key);
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, created);
+
+            if (existing != null) {
+                counter(METRIC_COALESCED, operation).increment();
+                log.debug("Requisição agrupada com execução em andamento: {}", flightKey);
+                return Mono.fromFuture(existing, true).map(value -> (T) value);
+            }
+
+            counter(METRIC_EXECUTED, operation).increment();
+            created.whenComplete((value, error) -> inFlight.remove(flightKey, created));
+            Mono.defer(loader).subscribe(created::complete, created::completeExceptionally, () -> created.complete(null));
+            return Mono.fromFuture(created, true).map(value -> (T) value);
+        });
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando requisição em andamento", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private String flightKey(String operation, String key) {
+        return operation + ":" + TextNormalizer.normalize(key);
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
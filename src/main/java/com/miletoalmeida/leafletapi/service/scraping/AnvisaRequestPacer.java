@@ -0,0 +1,141 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controla o ritmo das requisições para cada host da Anvisa.
+ *
+ * Cada requisição reserva o próximo horário livre do host e aguarda com {@link Mono#delay},
+ * sem ocupar threads. O intervalo entre horários cresce em respostas 429/503 e volta
+ * gradualmente ao mínimo enquanto a Anvisa responde normalmente.
+ */
+@Slf4j
+@Component
+public class AnvisaRequestPacer {
+
+    private final AnvisaProperties.Pacing properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostPacer> hosts = new ConcurrentHashMap<>();
+
+    public AnvisaRequestPacer(AnvisaProperties anvisaProperties, MeterRegistry meterRegistry) {
+        this.properties = anvisaProperties.getPacing();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reserva um horário para o host e completa quando a requisição pode ser enviada.
+     *
+     * @param host Host de destino
+     * @return Mono que completa no horário reservado
+     */
+    public Mono<Void> acquire(String host) {
+        return Mono.defer(() -> {
+            long waitNanos = pacer(host).reserve();
+            if (waitNanos < 0) {
+                meterRegistry.counter("anvisa.pacing.rejected", "host", host).increment();
+                return Mono.error(new ScrapingException(
+                    "Fila de requisições para a Anvisa excedeu o tempo máximo de espera",
+                    null,
+                    ScrapingException.ScrapingErrorType.RATE_LIMIT_EXCEEDED
+                ));
+            }
+            return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+        });
+    }
+
+    public void onSuccess(String host) {
+        pacer(host).recover();
+    }
+
+    public void onThrottled(String host) {
+        meterRegistry.counter("anvisa.pacing.throttled", "host", host).increment();
+        long interval = pacer(host).backOff();
+        log.warn("Anvisa limitou as requisições para {}; intervalo ajustado para {} ms", host, interval / 1_000_000);
+    }
+
+    private HostPacer pacer(String host) {
+        return hosts.computeIfAbsent(host, this::createPacer);
+    }
+
+    private HostPacer createPacer(String host) {
+        HostPacer pacer = new HostPacer();
+        Gauge.builder("anvisa.pacing.interval", pacer, p -> p.intervalNanos.get() / 1_000_000.0)
+                .tag("host", host)
+                .baseUnit("milliseconds")
+                .description("Intervalo atual entre requisições para o host")
+                .register(meterRegistry);
+        Gauge.builder("anvisa.pacing.queue_delay", pacer, p -> Math.max(0, p.nextSlotNanos.get() - System.nanoTime()) / 1_000_000.0)
+                .tag("host", host)
+                .baseUnit("milliseconds")
+                .description("Espera atual para a próxima requisição ao host")
+                .register(meterRegistry);
+        return pacer;
+    }
+
+    private class HostPacer {
+
+        private final AtomicLong intervalNanos = new AtomicLong(properties.getMinInterval().toNanos());
+        private final AtomicLong nextSlotNanos = new AtomicLong(System.nanoTime());
+
+        /**
+         * @return espera em nanossegundos até o horário reservado, ou -1 se a fila estiver cheia
+         */
+        long reserve() {
+            long maxQueueDelay = properties.getMaxQueueDelay().toNanos();
+
+            while (true) {
+                long now = System.nanoTime();
+                long next = nextSlotNanos.get();
+                long slot = Math.max(now, next);
+                long wait = slot - now;
+
+                if (wait > maxQueueDelay) {
+                    return -1;
+                }
+                if (nextSlotNanos.compareAndSet(next, slot + jittered(intervalNanos.get()))) {
+                    return wait;
+                }
+            }
+        }
+
+        long backOff() {
+            long max = properties.getMaxInterval().toNanos();
+            // Sem o piso, um intervalo mínimo zero continuaria zero depois de multiplicado
+            long floor = properties.getMinBackoff().toNanos();
+            long interval = intervalNanos.updateAndGet(current ->
+                    Math.min(max, Math.max(floor, (long) (current * properties.getBackoffMultiplier()))));
+
+            // Dá uma pausa ao host antes da próxima requisição
+            long cooldownUntil = System.nanoTime() + interval;
+            nextSlotNanos.accumulateAndGet(cooldownUntil, Math::max);
+            return interval;
+        }
+
+        void recover() {
+            long min = properties.getMinInterval().toNanos();
+            intervalNanos.updateAndGet(current ->
+                    Math.max(min, current - (long) ((current - min) * properties.getRecoveryFactor())));
+        }
+
+        private long jittered(long interval) {
+            double jitter = properties.getJitter();
+            if (jitter <= 0) {
+                return interval;
+            }
+            double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+            return Math.max(0, (long) (interval * factor));
+        }
+    }
+}
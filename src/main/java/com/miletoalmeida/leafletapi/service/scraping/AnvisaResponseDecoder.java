@@ -0,0 +1,370 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Decodifica as respostas JSON da Anvisa direto dos buffers de rede.
+ *
+ * Cada {@link DataBuffer} é entregue a um parser não bloqueante do Jackson assim que
+ * chega e liberado logo em seguida; os campos de {@link MedicineDTO} e {@link LeafletDTO}
+ * são preenchidos token a token. A resposta nunca é reunida numa única String nem
+ * convertida em árvore ({@code JsonNode}), então o limite de
+ * {@code spring.codec.max-in-memory-size} não se aplica e o tamanho total é limitado por
+ * {@code leafletapi.anvisa.max-response-size}.
+ *
+ * Os valores seguem a semântica de {@code JsonNode.asText("")} usada antes: campos
+ * ausentes, nulos, objetos ou listas viram "" e números viram texto.
+ */
+@Component
+public class AnvisaResponseDecoder {
+
+    private final JsonFactory jsonFactory;
+    private final long maxResponseBytes;
+
+    public AnvisaResponseDecoder(ObjectMapper objectMapper, AnvisaProperties properties) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.maxResponseBytes = properties.getMaxResponseSize().toBytes();
+    }
+
+    /**
+     * Decodifica uma página da busca de medicamentos.
+     *
+     * @param detailsUrlFormat Formato da URL de detalhes, recebe o número de registro
+     * @return página decodificada, ou vazio se a resposta não tiver conteúdo
+     */
+    public Mono<AnvisaSearchPage> decodeSearchPage(Flux<DataBuffer> body, int page, int count, String detailsUrlFormat) {
+        return decode(body, () -> new SearchPageHandler(page, count, detailsUrlFormat),
+                "Falha ao processar resultados da busca: ");
+    }
+
+    /**
+     * Decodifica a resposta do bulário. Os textos vêm como estão, sem limpeza de HTML.
+     *
+     * @return bula decodificada, ou vazio se a resposta não tiver conteúdo
+     */
+    public Mono<LeafletDTO> decodeLeaflet(Flux<DataBuffer> body) {
+        return decode(body, LeafletHandler::new, "Falha ao processar bula: ");
+    }
+
+    private <T> Mono<T> decode(Flux<DataBuffer> body, Supplier<TokenHandler<T>> handler, String errorMessage) {
+        return Mono.using(
+                () -> new StreamingParse<>(jsonFactory.createNonBlockingByteBufferParser(), handler.get(), errorMessage),
+                parse -> body.doOnNext(parse::feed).then(Mono.fromCallable(parse::finish)),
+                StreamingParse::close);
+    }
+
+    /**
+     * Recebe cada token com o nível de aninhamento em que ele está: o objeto raiz está
+     * no nível 0, seus campos no nível 1, e assim por diante.
+     */
+    private interface TokenHandler<T> {
+
+        void onToken(JsonToken token, JsonParser parser, int level) throws IOException;
+
+        T result();
+    }
+
+    private final class StreamingParse<T> {
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final TokenHandler<T> handler;
+        private final String errorMessage;
+        private long bytesRead;
+        private int depth;
+        private boolean sawToken;
+
+        private StreamingParse(JsonParser parser, TokenHandler<T> handler, String errorMessage) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.handler = handler;
+            this.errorMessage = errorMessage;
+        }
+
+        private void feed(DataBuffer buffer) {
+            try {
+                bytesRead += buffer.readableByteCount();
+                if (bytesRead > maxResponseBytes) {
+                    throw new ScrapingException(
+                        "Resposta da Anvisa excede o tamanho máximo de " + maxResponseBytes + " bytes",
+                        null,
+                        ScrapingException.ScrapingErrorType.INVALID_RESPONSE
+                    );
+                }
+
+                // O parser referencia o buffer sem copiá-lo, então cada um é consumido por inteiro antes do próximo
+                try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                    while (iterator.hasNext()) {
+                        ByteBuffer byteBuffer = iterator.next();
+                        feeder.feedInput(byteBuffer);
+                        drain();
+                    }
+                }
+            } catch (IOException e) {
+                throw parsingError(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        private T finish() {
+            try {
+                feeder.endOfInput();
+                drain();
+            } catch (IOException e) {
+                throw parsingError(e);
+            }
+
+            if (!sawToken) {
+                return null;
+            }
+            if (depth != 0) {
+                throw parsingError(new IOException("JSON incompleto"));
+            }
+            return handler.result();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                sawToken = true;
+                int level = depth;
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    level = --depth;
+                }
+                handler.onToken(token, parser, level);
+            }
+        }
+
+        private ScrapingException parsingError(IOException e) {
+            return new ScrapingException(errorMessage + e.getMessage(), e,
+                ScrapingException.ScrapingErrorType.PARSING_ERROR);
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nada a liberar além dos buffers internos do parser
+            }
+        }
+    }
+
+    /**
+     * {@code {"content": [{...medicamento...}, ...], "totalElements": n, "totalPages": n, "last": b}}
+     */
+    private static final class SearchPageHandler implements TokenHandler<AnvisaSearchPage> {
+        private final int page;
+        private final int count;
+        private final String detailsUrlFormat;
+        private final List<MedicineDTO> content = new ArrayList<>();
+
+        private String rootField;
+        private boolean inContent;
+        private MedicineDTO current;
+        private String itemField;
+        private Long totalElements;
+        private Integer totalPages;
+        private Boolean last;
+
+        private SearchPageHandler(int page, int count, String detailsUrlFormat) {
+            this.page = page;
+            this.count = count;
+            this.detailsUrlFormat = detailsUrlFormat;
+        }
+
+        @Override
+        public void onToken(JsonToken token, JsonParser parser, int level) throws IOException {
+            switch (level) {
+                case 1 -> onRootToken(token, parser);
+                case 2 -> onItemBoundary(token);
+                case 3 -> onItemToken(token, parser);
+                default -> {
+                    // Níveis mais profundos só aparecem dentro de valores ignorados
+                }
+            }
+        }
+
+        private void onRootToken(JsonToken token, JsonParser parser) throws IOException {
+            if (token == JsonToken.FIELD_NAME) {
+                rootField = parser.currentName();
+            } else if (token == JsonToken.START_ARRAY) {
+                inContent = "content".equals(rootField);
+            } else if (token == JsonToken.END_ARRAY) {
+                inContent = false;
+            } else if (token.isScalarValue()) {
+                switch (rootField) {
+                    case "totalElements" -> totalElements = asLong(token, parser);
+                    case "totalPages" -> {
+                        Long value = asLong(token, parser);
+                        totalPages = value != null ? value.intValue() : null;
+                    }
+                    case "last" -> last = asBoolean(token, parser);
+                    case null, default -> {
+                    }
+                }
+            }
+        }
+
+        private void onItemBoundary(JsonToken token) {
+            if (!inContent) {
+                return;
+            }
+            if (token == JsonToken.START_OBJECT) {
+                current = emptyMedicine();
+            } else if (token == JsonToken.END_OBJECT && current != null) {
+                current.setLeafletUrl(String.format(detailsUrlFormat, current.getRegistryNumber()));
+                content.add(current);
+                current = null;
+            }
+        }
+
+        private void onItemToken(JsonToken token, JsonParser parser) throws IOException {
+            if (current == null) {
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                itemField = parser.currentName();
+            } else if (token.isScalarValue() || token.isStructStart()) {
+                setField(current, itemField, asText(token, parser));
+            }
+        }
+
+        @Override
+        public AnvisaSearchPage result() {
+            // Respostas sem metadados de paginação terminam na primeira página incompleta
+            boolean isLast = content.isEmpty() || (last != null ? last : content.size() < count);
+
+            return new AnvisaSearchPage(
+                content,
+                page,
+                count,
+                totalElements != null ? totalElements : content.size(),
+                totalPages != null ? totalPages : page,
+                isLast
+            );
+        }
+
+        private static MedicineDTO emptyMedicine() {
+            MedicineDTO medicine = new MedicineDTO();
+            medicine.setRegistryNumber("");
+            medicine.setProductName("");
+            medicine.setCompany("");
+            medicine.setActiveIngredient("");
+            medicine.setTherapeuticClass("");
+            medicine.setRegulatoryType("");
+            medicine.setProcessNumber("");
+            medicine.setCnpj("");
+            return medicine;
+        }
+
+        private static void setField(MedicineDTO medicine, String field, String value) {
+            switch (field) {
+                case "numeroRegistro" -> medicine.setRegistryNumber(value);
+                case "nomeProduto" -> medicine.setProductName(value);
+                case "razaoSocial" -> medicine.setCompany(value);
+                case "principioAtivo" -> medicine.setActiveIngredient(value);
+                case "classesTerapeuticas" -> medicine.setTherapeuticClass(value);
+                case "categoriaRegulatoria" -> medicine.setRegulatoryType(value);
+                case "numeroProcesso" -> medicine.setProcessNumber(value);
+                case "cnpj" -> medicine.setCnpj(value);
+                case null, default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code {"content": [{"textoRotulagem": "...", "textoBula": "..."}, ...]}}; só o primeiro item é usado.
+     */
+    private static final class LeafletHandler implements TokenHandler<LeafletDTO> {
+        private final LeafletDTO leaflet = new LeafletDTO();
+
+        private String rootField;
+        private boolean inContent;
+        private int itemIndex;
+        private String itemField;
+
+        @Override
+        public void onToken(JsonToken token, JsonParser parser, int level) throws IOException {
+            if (level == 1) {
+                if (token == JsonToken.FIELD_NAME) {
+                    rootField = parser.currentName();
+                } else if (token == JsonToken.START_ARRAY) {
+                    inContent = "content".equals(rootField);
+                } else if (token == JsonToken.END_ARRAY) {
+                    inContent = false;
+                }
+            } else if (level == 2 && inContent && token == JsonToken.END_OBJECT) {
+                itemIndex++;
+            } else if (level == 3 && inContent && itemIndex == 0) {
+                if (token == JsonToken.FIELD_NAME) {
+                    itemField = parser.currentName();
+                } else if (token.isScalarValue() || token.isStructStart()) {
+                    if ("textoRotulagem".equals(itemField)) {
+                        leaflet.setPatientLeaflet(asText(token, parser));
+                    } else if ("textoBula".equals(itemField)) {
+                        leaflet.setProfessionalLeaflet(asText(token, parser));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public LeafletDTO result() {
+            return leaflet;
+        }
+    }
+
+    private static String asText(JsonToken token, JsonParser parser) throws IOException {
+        return token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : "";
+    }
+
+    private static Long asLong(JsonToken token, JsonParser parser) throws IOException {
+        if (token.isNumeric()) {
+            return parser.getValueAsLong();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Boolean asBoolean(JsonToken token, JsonParser parser) throws IOException {
+        return switch (token) {
+            case VALUE_TRUE -> true;
+            case VALUE_FALSE -> false;
+            case VALUE_NUMBER_INT -> parser.getValueAsLong() != 0;
+            case VALUE_STRING -> switch (parser.getText().trim()) {
+                case "true" -> true;
+                case "false" -> false;
+                default -> null;
+            };
+            default -> null;
+        };
+    }
+}
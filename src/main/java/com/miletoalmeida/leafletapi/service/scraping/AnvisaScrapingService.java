@@ -1,224 +1,194 @@
 package com.miletoalmeida.leafletapi.service.scraping;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
 import com.miletoalmeida.leafletapi.dto.LeafletDTO;
 import com.miletoalmeida.leafletapi.dto.MedicineDTO;
 import com.miletoalmeida.leafletapi.exception.ScrapingException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.net.URI;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 @Service
 public class AnvisaScrapingService {
 
-    // URLs da Anvisa
-    private static final String ANVISA_BASE_URL = "https://consultas.anvisa.gov.br";
-    private static final String ANVISA_SEARCH_URL = ANVISA_BASE_URL + "/api/consulta/medicamentos";
-    private static final String ANVISA_LEAFLET_URL = ANVISA_BASE_URL + "/api/consulta/bulario";
-    private static final String ANVISA_MEDICINE_DETAILS_URL = ANVISA_BASE_URL + "#/medicamento/%s";
+    // Caminhos da API da Anvisa, relativos a leafletapi.anvisa.base-url
+    public static final String SEARCH_PATH = "/api/consulta/medicamentos";
+    public static final String LEAFLET_PATH = "/api/consulta/bulario";
+    private static final String MEDICINE_DETAILS_PATH = "#/medicamento/%s";
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final String baseUrl;
+    private final String searchUrl;
+    private final String leafletUrl;
+    private final String medicineDetailsUrl;
 
     private final WebClient webClient;
     private final UserAgentRotator userAgentRotator;
     private final ObjectMapper objectMapper;
+    private final AnvisaRequestPacer requestPacer;
+    private final AnvisaResponseDecoder responseDecoder;
 
     @Autowired
-    public AnvisaScrapingService(WebClient webClient, UserAgentRotator userAgentRotator, ObjectMapper objectMapper) {
+    public AnvisaScrapingService(WebClient webClient, UserAgentRotator userAgentRotator, ObjectMapper objectMapper,
+                                 AnvisaRequestPacer requestPacer, AnvisaResponseDecoder responseDecoder,
+                                 AnvisaProperties properties) {
         this.webClient = webClient;
         this.userAgentRotator = userAgentRotator;
         this.objectMapper = objectMapper;
+        this.requestPacer = requestPacer;
+        this.responseDecoder = responseDecoder;
+
+        this.baseUrl = StringUtils.trimTrailingCharacter(properties.getBaseUrl(), '/');
+        this.searchUrl = baseUrl + SEARCH_PATH;
+        this.leafletUrl = baseUrl + LEAFLET_PATH;
+        this.medicineDetailsUrl = baseUrl + MEDICINE_DETAILS_PATH;
     }
 
-private String executeAnvisaRequest(String url, String payload) throws ScrapingException {
-    try {
-        // Adiciona delay para simular comportamento humano
-        addRandomDelay();
-
-        String userAgent = userAgentRotator.getRandomUserAgent();
-
-        return webClient.post()
-                .uri(url)
-                .header(HttpHeaders.USER_AGENT, userAgent)
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .header("Referer", ANVISA_BASE_URL)
-                .header("Origin", ANVISA_BASE_URL)
-                .body(BodyInserters.fromValue(payload))
-                .retrieve()
-                .bodyToMono(String.class)
+    /**
+     * Executa a requisição para a Anvisa sem bloquear a thread chamadora.
+     *
+     * Cada tentativa, incluindo as de retry, aguarda seu horário no {@link AnvisaRequestPacer}
+     * do host e informa a ele o resultado. O corpo é entregue ao {@code decoder} em
+     * buffers, à medida que chega, sem ser reunido numa String.
+     */
+    private <T> Mono<T> executeAnvisaRequestReactive(String url, String payload,
+                                                     Function<Flux<DataBuffer>, Mono<T>> decoder) {
+        String host = URI.create(url).getHost();
+
+        return Mono.defer(() -> requestPacer.acquire(host)
+                        .then(Mono.defer(() -> webClient.post()
+                                .uri(url)
+                                .header(HttpHeaders.USER_AGENT, userAgentRotator.getRandomUserAgent())
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                                .header("Referer", baseUrl)
+                                .header("Origin", baseUrl)
+                                .body(BodyInserters.fromValue(payload))
+                                .retrieve()
+                                .bodyToFlux(DataBuffer.class)
+                                .as(decoder))))
+                .doOnSuccess(responseBody -> requestPacer.onSuccess(host))
+                .doOnError(this::isThrottled, e -> requestPacer.onThrottled(host))
                 .retryWhen(Retry.backoff(3, Duration.ofSeconds(2))
                         .filter(throwable -> throwable instanceof WebClientResponseException))
-                .block();
-    } catch (Exception e) {
+                .onErrorMap(e -> !(e instanceof ScrapingException), this::toScrapingException);
+    }
+
+    private boolean isThrottled(Throwable e) {
+        return e instanceof WebClientResponseException.TooManyRequests
+                || e instanceof WebClientResponseException.ServiceUnavailable;
+    }
+
+    private ScrapingException toScrapingException(Throwable e) {
+        Throwable cause = Exceptions.isRetryExhausted(e) && e.getCause() != null ? e.getCause() : e;
         ScrapingException.ScrapingErrorType errorType;
-        
-        if (e instanceof WebClientResponseException.TooManyRequests) {
+
+        if (cause instanceof WebClientResponseException.TooManyRequests) {
             errorType = ScrapingException.ScrapingErrorType.RATE_LIMIT_EXCEEDED;
-        } else if (e instanceof WebClientResponseException.ServiceUnavailable) {
+        } else if (cause instanceof WebClientResponseException.ServiceUnavailable) {
             errorType = ScrapingException.ScrapingErrorType.SERVICE_UNAVAILABLE;
         } else {
             errorType = ScrapingException.ScrapingErrorType.NETWORK_ERROR;
         }
-        
-        throw new ScrapingException(
-            "Falha na requisição para a Anvisa: " + e.getMessage(),
-            e,
+
+        return new ScrapingException(
+            "Falha na requisição para a Anvisa: " + cause.getMessage(),
+            cause,
             errorType
         );
     }
-}
-
-public List<MedicineDTO> searchMedicines(String query) throws ScrapingException {
-    try {
-        String searchPayload = String.format("{\"count\":20,\"filter\":{\"nome\":\"%s\"},\"page\":1}", query);
-        String responseBody = executeAnvisaRequest(ANVISA_SEARCH_URL, searchPayload);
-
-        if (responseBody == null || responseBody.isEmpty()) {
-            throw new ScrapingException(
-                "Resposta vazia da API da Anvisa",
-                null,
-                ScrapingException.ScrapingErrorType.INVALID_RESPONSE
-            );
-        }
 
-        return parseMedicineSearchResults(responseBody);
-    } catch (ScrapingException e) {
-        throw e; // Relança exceções de scraping
-    } catch (Exception e) {
-        throw new ScrapingException(
-            "Falha ao processar resultados da busca: " + e.getMessage(),
-            e,
-            ScrapingException.ScrapingErrorType.PARSING_ERROR
-        );
+    public List<MedicineDTO> searchMedicines(String query) throws ScrapingException {
+        return searchMedicinesReactive(query).collectList().block();
     }
-}
-
-public LeafletDTO getLeaflet(String registryNumber) throws ScrapingException {
-    try {
-        String leafletPayload = String.format("{\"filter\":{\"numeroRegistro\":\"%s\"}}", registryNumber);
-        String responseBody = executeAnvisaRequest(ANVISA_LEAFLET_URL, leafletPayload);
-
-        if (responseBody == null || responseBody.isEmpty()) {
-            throw new ScrapingException(
-                "Resposta vazia da API de bulas da Anvisa",
-                null,
-                ScrapingException.ScrapingErrorType.INVALID_RESPONSE
-            );
-        }
 
-        return parseLeafletResult(responseBody);
-    } catch (ScrapingException e) {
-        throw e; // Relança exceções de scraping
-    } catch (Exception e) {
-        throw new ScrapingException(
-            "Falha ao processar bula: " + e.getMessage(),
-            e,
-            ScrapingException.ScrapingErrorType.PARSING_ERROR
-        );
+    public Flux<MedicineDTO> searchMedicinesReactive(String query) {
+        return searchMedicinesPage(query, 1, DEFAULT_PAGE_SIZE)
+                .flatMapIterable(AnvisaSearchPage::getContent);
     }
-}
 
     /**
-     * Faz o parse da resposta de busca de medicamentos
+     * Busca uma única página de resultados.
+     *
+     * @param query Termo de busca
+     * @param page Página, começando em 1
+     * @param count Quantidade de itens por página
      */
-    private List<MedicineDTO> parseMedicineSearchResults(String jsonResponse) throws Exception {
-        List<MedicineDTO> results = new ArrayList<>();
-
-        JsonNode rootNode = objectMapper.readTree(jsonResponse);
-        JsonNode contentNode = rootNode.path("content");
-
-        if (contentNode.isArray()) {
-            for (JsonNode medicineNode : contentNode) {
-                MedicineDTO medicine = new MedicineDTO();
-
-                // Extrai informações básicas
-                medicine.setRegistryNumber(medicineNode.path("numeroRegistro").asText(""));
-                medicine.setProductName(medicineNode.path("nomeProduto").asText(""));
-                medicine.setCompany(medicineNode.path("razaoSocial").asText(""));
-                medicine.setActiveIngredient(medicineNode.path("principioAtivo").asText(""));
-                medicine.setTherapeuticClass(medicineNode.path("classesTerapeuticas").asText(""));
-                medicine.setRegulatoryType(medicineNode.path("categoriaRegulatoria").asText(""));
-
-                // Informações adicionais
-                medicine.setProcessNumber(medicineNode.path("numeroProcesso").asText(""));
-                medicine.setCnpj(medicineNode.path("cnpj").asText(""));
-
-                // URL para buscar detalhes completos da bula
-                String detailsUrl = String.format(ANVISA_MEDICINE_DETAILS_URL, medicine.getRegistryNumber());
-                medicine.setLeafletUrl(detailsUrl);
-
-                results.add(medicine);
-            }
-        }
-
-        return results;
+    public Mono<AnvisaSearchPage> searchMedicinesPage(String query, int page, int count) {
+        ObjectNode searchPayload = objectMapper.createObjectNode();
+        searchPayload.put("count", count);
+        searchPayload.putObject("filter").put("nome", query);
+        searchPayload.put("page", page);
+
+        return executeAnvisaRequestReactive(searchUrl, searchPayload.toString(),
+                        body -> responseDecoder.decodeSearchPage(body, page, count, medicineDetailsUrl))
+                .switchIfEmpty(Mono.error(() -> new ScrapingException(
+                    "Resposta vazia da API da Anvisa",
+                    null,
+                    ScrapingException.ScrapingErrorType.INVALID_RESPONSE
+                )));
     }
 
     /**
-     * Faz o parse da resposta de bula
+     * Percorre as páginas de resultados sob demanda.
+     *
+     * Cada página só é pedida à Anvisa depois que a anterior foi consumida, e a
+     * sequência termina na última página, em {@code maxPages} ou no cancelamento.
+     *
+     * @param query Termo de busca
+     * @param pageSize Quantidade de itens por página
+     * @param maxPages Limite de páginas consultadas
      */
-    private LeafletDTO parseLeafletResult(String jsonResponse) throws Exception {
-        LeafletDTO leaflet = new LeafletDTO();
-
-        JsonNode rootNode = objectMapper.readTree(jsonResponse);
-        JsonNode contentNode = rootNode.path("content");
-
-        if (contentNode.isArray() && !contentNode.isEmpty()) {
-            JsonNode firstLeaflet = contentNode.get(0);
-
-            // Verifica se há bula para paciente
-            if (firstLeaflet.has("textoRotulagem")) {
-                String patientText = firstLeaflet.path("textoRotulagem").asText("");
-                leaflet.setPatientLeaflet(cleanHtml(patientText));
-            }
-
-            // Verifica se há bula para profissional de saúde
-            if (firstLeaflet.has("textoBula")) {
-                String professionalText = firstLeaflet.path("textoBula").asText("");
-                leaflet.setProfessionalLeaflet(cleanHtml(professionalText));
-            }
-        }
-
-        return leaflet;
+    public Flux<AnvisaSearchPage> streamMedicinePages(String query, int pageSize, int maxPages) {
+        return Flux.range(1, maxPages)
+                .concatMap(page -> searchMedicinesPage(query, page, pageSize), 0)
+                .takeUntil(AnvisaSearchPage::isLast);
     }
 
-    /**
-     * Limpa o HTML da bula, mantendo formatação básica
-     */
-    private String cleanHtml(String html) {
-        if (html == null || html.isEmpty()) {
-            return "";
-        }
-
-        // Usa JSoup para limpar e formatar o HTML
-        Document doc = Jsoup.parse(html);
-        doc.select("script, style").remove(); // Remove scripts e estilos
+    public LeafletDTO getLeaflet(String registryNumber) throws ScrapingException {
+        return getLeafletReactive(registryNumber).block();
+    }
 
-        return doc.body().html();
+    public Mono<LeafletDTO> getLeafletReactive(String registryNumber) {
+        ObjectNode leafletPayload = objectMapper.createObjectNode();
+        leafletPayload.putObject("filter").put("numeroRegistro", registryNumber);
+
+        return executeAnvisaRequestReactive(leafletUrl, leafletPayload.toString(),
+                        responseDecoder::decodeLeaflet)
+                .switchIfEmpty(Mono.error(() -> new ScrapingException(
+                    "Resposta vazia da API de bulas da Anvisa",
+                    null,
+                    ScrapingException.ScrapingErrorType.INVALID_RESPONSE
+                )))
+                .map(this::cleanLeaflet);
     }
 
-    /**
-     * Adiciona um delay aleatório para simular comportamento humano
-     */
-    private void addRandomDelay() {
-        try {
-            // Delay aleatório entre 1-3 segundos
-            long delay = ThreadLocalRandom.current().nextLong(1000, 3000);
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private LeafletDTO cleanLeaflet(LeafletDTO leaflet) {
+        // Só as partes presentes na resposta são preenchidas
+        if (leaflet.getPatientLeaflet() != null) {
+            leaflet.setPatientLeaflet(LeafletHtmlSanitizer.sanitize(leaflet.getPatientLeaflet()));
+        }
+        if (leaflet.getProfessionalLeaflet() != null) {
+            leaflet.setProfessionalLeaflet(LeafletHtmlSanitizer.sanitize(leaflet.getProfessionalLeaflet()));
         }
+        return leaflet;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uma página de resultados da busca de medicamentos da Anvisa.
+ *
+ * As páginas da Anvisa começam em 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnvisaSearchPage {
+
+    private List<MedicineDTO> content = new ArrayList<>();
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+}
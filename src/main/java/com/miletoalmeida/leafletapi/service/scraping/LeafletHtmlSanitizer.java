@@ -0,0 +1,312 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Limpa o HTML de uma bula numa única passada, sem montar a árvore do documento.
+ *
+ * Remove {@code script} e {@code style} junto com o conteúdo, além de comentários, doctype
+ * e o que pertence ao {@code head}. Descarta as próprias tags {@code html}, {@code head} e
+ * {@code body} e reduz cada sequência de espaços em branco do texto a um espaço, exceto
+ * dentro de {@code pre}. As demais tags saem como vieram, com o nome em minúsculas.
+ *
+ * Lido por um parser HTML, o resultado é o mesmo documento que o corpo de
+ * {@code Jsoup.parse(html)} sem scripts, estilos e comentários.
+ */
+public final class LeafletHtmlSanitizer {
+
+    private static final Set<String> DROPPED = Set.of("script", "style");
+    private static final Set<String> DOCUMENT = Set.of("html", "head", "body");
+
+    // Só pertencem ao head quando aparecem antes do conteúdo; depois disso o parser os mantém no body
+    private static final Set<String> HEAD_ONLY = Set.of("title", "meta", "link", "base", "basefont", "bgsound");
+
+    // Conteúdo é texto bruto: tags dentro deles não são interpretadas
+    private static final Set<String> RAW_TEXT =
+            Set.of("script", "style", "title", "textarea", "xmp", "iframe", "noembed", "noframes");
+
+    private static final Set<String> PREFORMATTED = Set.of("pre", "listing");
+
+    private final String html;
+    private final int length;
+    private final StringBuilder out;
+
+    private int pos;
+    private boolean inBody;
+    private int preformattedDepth;
+
+    // Espaço adiado: só é escrito se vier mais conteúdo depois, o que também apara o fim do texto
+    private boolean pendingSpace;
+
+    private LeafletHtmlSanitizer(String html) {
+        this.html = html;
+        this.length = html.length();
+        this.out = new StringBuilder(length);
+    }
+
+    /**
+     * @param html HTML da bula como veio da Anvisa
+     * @return HTML limpo, ou vazio se não houver conteúdo
+     */
+    public static String sanitize(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        return new LeafletHtmlSanitizer(html).run();
+    }
+
+    private String run() {
+        while (pos < length) {
+            if (html.charAt(pos) == '<') {
+                markup();
+            } else {
+                text();
+            }
+        }
+        return out.toString();
+    }
+
+    private void text() {
+        int start = pos;
+        while (pos < length) {
+            char c = html.charAt(pos);
+            if (c == '<') {
+                break;
+            }
+            if (preformattedDepth == 0 && isWhitespace(c)) {
+                appendText(start, pos);
+                while (pos < length && isWhitespace(html.charAt(pos))) {
+                    pos++;
+                }
+                // Antes do primeiro conteúdo o espaço é descartado, como o parser faz antes do body
+                pendingSpace = out.length() > 0;
+                start = pos;
+                continue;
+            }
+            pos++;
+        }
+        appendText(start, pos);
+    }
+
+    private void appendText(int start, int end) {
+        if (start == end) {
+            return;
+        }
+        inBody = true;
+        flushSpace();
+        out.append(html, start, end);
+    }
+
+    private void markup() {
+        char next = charAt(pos + 1);
+
+        if (next == '!') {
+            if (html.startsWith("<!-->", pos) || html.startsWith("<!--->", pos)) {
+                pos = html.indexOf('>', pos) + 1;
+            } else if (html.startsWith("<!--", pos)) {
+                skipPast("-->", pos + 4);
+            } else {
+                // Doctype, CDATA e declarações condicionais do Word
+                skipPast(">", pos + 2);
+            }
+        } else if (next == '?') {
+            skipPast(">", pos + 2);
+        } else if (next == '/') {
+            if (isAsciiLetter(charAt(pos + 2))) {
+                endTag();
+            } else if (pos + 2 < length) {
+                skipPast(">", pos + 2);
+            } else {
+                appendLiteral("&lt;/");
+                pos = length;
+            }
+        } else if (isAsciiLetter(next)) {
+            startTag();
+        } else {
+            // '<' solto, como em "< 2 anos", é texto
+            appendLiteral("&lt;");
+            pos++;
+        }
+    }
+
+    private void startTag() {
+        int nameStart = pos + 1;
+        int nameEnd = tagNameEnd(nameStart);
+        int tagEnd = findTagEnd(nameEnd);
+        if (tagEnd < 0) {
+            // Tag sem '>' até o fim do texto: o parser a descarta
+            pos = length;
+            return;
+        }
+
+        String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        boolean selfClosing = html.charAt(tagEnd - 1) == '/';
+        pos = tagEnd + 1;
+
+        if (DROPPED.contains(name) || (!inBody && HEAD_ONLY.contains(name))) {
+            if (!selfClosing && RAW_TEXT.contains(name)) {
+                skipRawText(name);
+            }
+            return;
+        }
+        if (DOCUMENT.contains(name)) {
+            inBody |= name.equals("body");
+            return;
+        }
+
+        inBody = true;
+        flushSpace();
+        out.append('<').append(name);
+
+        if (selfClosing && RAW_TEXT.contains(name)) {
+            // O Jsoup trata "<textarea/>" como elemento vazio, mas o navegador ignora a barra e
+            // leria o resto da bula como texto bruto: sai sem a barra e já fechado
+            out.append(html, nameEnd, tagEnd - 1).append("></").append(name).append('>');
+            return;
+        }
+        out.append(html, nameEnd, pos);
+
+        if (!selfClosing) {
+            if (RAW_TEXT.contains(name)) {
+                copyRawText(name);
+            } else if (PREFORMATTED.contains(name)) {
+                preformattedDepth++;
+            }
+        }
+    }
+
+    private void endTag() {
+        int nameStart = pos + 2;
+        int nameEnd = tagNameEnd(nameStart);
+        int tagEnd = findTagEnd(nameEnd);
+        if (tagEnd < 0) {
+            pos = length;
+            return;
+        }
+
+        String name = html.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        pos = tagEnd + 1;
+
+        // Antes do body o parser ignora tags de fechamento, exceto </br>. Um </script> solto,
+        // como depois de "<script/>", não tem o que fechar e sai junto com os scripts
+        if (DOCUMENT.contains(name) || DROPPED.contains(name) || (!inBody && !name.equals("br"))) {
+            return;
+        }
+        if (PREFORMATTED.contains(name) && preformattedDepth > 0) {
+            preformattedDepth--;
+        }
+
+        inBody = true;
+        flushSpace();
+        out.append("</").append(name).append('>');
+    }
+
+    private void skipRawText(String name) {
+        int end = rawTextEnd(name);
+        pos = end < 0 ? length : closeOf(end);
+    }
+
+    private void copyRawText(String name) {
+        int end = rawTextEnd(name);
+        if (end < 0) {
+            out.append(html, pos, length);
+            pos = length;
+            return;
+        }
+        out.append(html, pos, end).append("</").append(name).append('>');
+        pos = closeOf(end);
+    }
+
+    /**
+     * Posição do {@code </name} que fecha o texto bruto, ou -1 se ele vai até o fim.
+     */
+    private int rawTextEnd(String name) {
+        int candidate = pos;
+        while ((candidate = html.indexOf("</", candidate)) >= 0) {
+            int after = candidate + 2 + name.length();
+            if (html.regionMatches(true, candidate + 2, name, 0, name.length())) {
+                char c = charAt(after);
+                if (after >= length || c == '>' || c == '/' || isWhitespace(c)) {
+                    return candidate;
+                }
+            }
+            candidate += 2;
+        }
+        return -1;
+    }
+
+    private int closeOf(int endTagStart) {
+        int close = html.indexOf('>', endTagStart);
+        return close < 0 ? length : close + 1;
+    }
+
+    private int tagNameEnd(int from) {
+        int end = from;
+        while (end < length) {
+            char c = html.charAt(end);
+            if (c == '>' || c == '/' || isWhitespace(c)) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Posição do '>' que fecha a tag, ignorando os que estão dentro de valores entre aspas.
+     */
+    private int findTagEnd(int from) {
+        boolean afterEquals = false;
+        for (int i = from; i < length; i++) {
+            char c = html.charAt(i);
+            if (c == '>') {
+                return i;
+            }
+            if (afterEquals && (c == '"' || c == '\'')) {
+                int close = html.indexOf(c, i + 1);
+                if (close < 0) {
+                    return -1;
+                }
+                i = close;
+                afterEquals = false;
+            } else if (c == '=') {
+                afterEquals = true;
+            } else if (!isWhitespace(c)) {
+                afterEquals = false;
+            }
+        }
+        return -1;
+    }
+
+    private void skipPast(String terminator, int from) {
+        int found = html.indexOf(terminator, from);
+        pos = found < 0 ? length : found + terminator.length();
+    }
+
+    private void appendLiteral(String literal) {
+        inBody = true;
+        flushSpace();
+        out.append(literal);
+    }
+
+    private void flushSpace() {
+        if (pendingSpace) {
+            out.append(' ');
+            pendingSpace = false;
+        }
+    }
+
+    private char charAt(int index) {
+        return index < length ? html.charAt(index) : 0;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    // Espaços do HTML; o &nbsp; (U+00A0) é conteúdo e fica como está
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
@@ -0,0 +1,181 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.miletoalmeida.leafletapi.util.TextNormalizer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Divide o HTML de uma bula nas seções padronizadas pela RDC 47/2009.
+ *
+ * Cada bloco cujo texto é um título conhecido (com ou sem numeração, acentos ou ponto
+ * de interrogação) abre uma seção; os blocos seguintes pertencem a ela
+ * até o próximo título. Títulos repetidos, como os de um índice no início da bula,
+ * continuam a seção já aberta. O que vem antes do primeiro título fica em
+ * {@code identification}.
+ */
+public final class LeafletSectionParser {
+
+    public static final String IDENTIFICATION = "identification";
+
+    private static final int MAX_HEADING_LENGTH = 120;
+
+    private static final Pattern LEADING_NUMBERING = Pattern.compile("^(?:\\d+|[ivx]+)\\s+");
+
+    private static final Set<String> CONTAINERS = Set.of("body", "div", "section", "article", "main", "center");
+
+    // Títulos da bula do paciente e da bula do profissional, já normalizados, por nome de seção
+    private static final Map<String, String> HEADINGS = new HashMap<>();
+
+    static {
+        heading(IDENTIFICATION, "identificacao do medicamento");
+        heading("indications", "para que este medicamento e indicado", "indicacao", "indicacoes");
+        heading("mechanism", "como este medicamento funciona");
+        heading("efficacy", "resultados de eficacia");
+        heading("pharmacology", "caracteristicas farmacologicas");
+        heading("contraindications", "quando nao devo usar este medicamento", "contraindicacao", "contraindicacoes",
+                "contra indicacoes");
+        heading("warnings", "o que devo saber antes de usar este medicamento", "advertencias e precaucoes");
+        heading("interactions", "interacoes medicamentosas");
+        heading("storage", "onde como e por quanto tempo posso guardar este medicamento",
+                "cuidados de armazenamento do medicamento", "cuidados de armazenamento");
+        heading("dosage", "como devo usar este medicamento", "posologia e modo de usar", "posologia");
+        heading("missed-dose", "o que devo fazer quando eu me esquecer de usar este medicamento");
+        heading("adverse-reactions", "quais os males que este medicamento pode me causar", "reacoes adversas");
+        heading("overdose", "o que fazer se alguem usar uma quantidade maior do que a indicada deste medicamento",
+                "superdose");
+        heading("legal", "dizeres legais");
+    }
+
+    private LeafletSectionParser() {
+    }
+
+    /**
+     * Nomes de seção que o parser pode produzir.
+     */
+    public static Set<String> names() {
+        return Set.copyOf(HEADINGS.values());
+    }
+
+    /**
+     * @param html HTML da bula, já limpo
+     * @return seções não vazias, na ordem em que aparecem pela primeira vez
+     */
+    public static List<Section> parse(String html) {
+        if (html == null || html.isBlank()) {
+            return List.of();
+        }
+
+        List<Element> blocks = new ArrayList<>();
+        collectBlocks(Jsoup.parseBodyFragment(html).body(), blocks);
+
+        Map<String, SectionBuilder> sections = new LinkedHashMap<>();
+        SectionBuilder current = null;
+
+        for (Element block : blocks) {
+            String text = block.text().trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            String name = text.length() <= MAX_HEADING_LENGTH ? headingName(text) : null;
+            if (name != null) {
+                current = sections.computeIfAbsent(name, key -> new SectionBuilder(key, text));
+                continue;
+            }
+
+            if (current == null) {
+                current = sections.computeIfAbsent(IDENTIFICATION, key -> new SectionBuilder(key, null));
+            }
+            current.append(block.outerHtml(), text);
+        }
+
+        return sections.values().stream()
+                .filter(SectionBuilder::hasContent)
+                .map(SectionBuilder::build)
+                .toList();
+    }
+
+    // O bloco inteiro precisa ser o título, para não tomar "Indicações: ..." por um título
+    static String headingName(String text) {
+        return HEADINGS.get(normalize(text));
+    }
+
+    static String normalize(String text) {
+        return LEADING_NUMBERING.matcher(TextNormalizer.normalize(text)).replaceFirst("");
+    }
+
+    /**
+     * Achata os contêineres (div, section...) que têm blocos dentro, para que cada
+     * parágrafo, título ou tabela seja avaliado separadamente. Texto solto vira um parágrafo.
+     */
+    private static void collectBlocks(Element parent, List<Element> blocks) {
+        for (Node node : parent.childNodes()) {
+            if (node instanceof TextNode textNode) {
+                if (!textNode.isBlank()) {
+                    blocks.add(new Element("p").appendText(textNode.text().trim()));
+                }
+            } else if (node instanceof Element element) {
+                if (CONTAINERS.contains(element.normalName())
+                        && element.children().stream().anyMatch(Element::isBlock)) {
+                    collectBlocks(element, blocks);
+                } else {
+                    blocks.add(element);
+                }
+            }
+        }
+    }
+
+    private static void heading(String name, String... titles) {
+        for (String title : titles) {
+            HEADINGS.put(title, name);
+        }
+    }
+
+    /**
+     * @param name Nome padronizado da seção
+     * @param title Título como aparece na bula, ou null se a seção não tinha título
+     * @param html HTML da seção, sem o título
+     * @param text Texto puro da seção, um bloco por linha
+     */
+    public record Section(String name, String title, String html, String text) {
+    }
+
+    private static final class SectionBuilder {
+        private final String name;
+        private final String title;
+        private final StringBuilder html = new StringBuilder();
+        private final StringBuilder text = new StringBuilder();
+
+        private SectionBuilder(String name, String title) {
+            this.name = name;
+            this.title = title;
+        }
+
+        private void append(String blockHtml, String blockText) {
+            if (!text.isEmpty()) {
+                html.append('\n');
+                text.append('\n');
+            }
+            html.append(blockHtml);
+            text.append(blockText);
+        }
+
+        private boolean hasContent() {
+            return !text.isEmpty();
+        }
+
+        private Section build() {
+            return new Section(name, title, html.toString(), text.toString());
+        }
+    }
+}
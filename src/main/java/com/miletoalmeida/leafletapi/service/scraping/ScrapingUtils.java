@@ -18,7 +18,6 @@ public class ScrapingUtils {
 
     private static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]*>");
     private static final Pattern MULTIPLE_SPACES_PATTERN = Pattern.compile("\\s+");
-    private static final Pattern SPECIAL_CHARS_PATTERN = Pattern.compile("[^a-zA-Z0-9\\s]");
     
     private static final int MAX_TEXT_LENGTH = 5000;
     private static final String ELLIPSIS = "...";
@@ -61,22 +60,13 @@ public class ScrapingUtils {
 
     /**
      * Normaliza o texto removendo acentos e caracteres especiais.
+     * Pontuação separa palavras; veja {@link TextNormalizer#normalize(String)}.
      *
      * @param text O texto para ser normalizado
      * @return texto normalizado
      */
     public static String normalizeText(String text) {
-        return Optional.ofNullable(text)
-                .map(str -> str.replaceAll("[áàãâä]", "a"))
-                .map(str -> str.replaceAll("[éèêë]", "e"))
-                .map(str -> str.replaceAll("[íìîï]", "i"))
-                .map(str -> str.replaceAll("[óòõôö]", "o"))
-                .map(str -> str.replaceAll("[úùûü]", "u"))
-                .map(str -> str.replaceAll("[ç]", "c"))
-                .map(str -> SPECIAL_CHARS_PATTERN.matcher(str).replaceAll(""))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .orElse("");
+        return TextNormalizer.normalize(text);
     }
 
     /**
@@ -163,11 +153,7 @@ public class ScrapingUtils {
      * @return texto limpo
      */
     public static String cleanWhitespace(String text) {
-        return Optional.ofNullable(text)
-                .map(str -> str.replaceAll("\\s+", " "))
-                .map(str -> str.replaceAll("\\n+", "\n"))
-                .map(String::trim)
-                .orElse("");
+        return TextNormalizer.collapseWhitespace(text);
     }
 
     /**
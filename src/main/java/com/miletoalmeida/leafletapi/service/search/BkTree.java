@@ -0,0 +1,111 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BK-tree sobre a distância de Levenshtein, usada para achar termos do vocabulário
+ * próximos de um termo digitado com erro.
+ *
+ * Inserções devem ser serializadas pelo chamador; consultas podem rodar em paralelo
+ * com elas. Termos não são removidos: um termo sem medicamentos apenas não retorna
+ * resultados no índice invertido.
+ */
+final class BkTree {
+
+    private volatile Node root;
+
+    void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            return;
+        }
+
+        Node node = root;
+        while (true) {
+            int distance = distance(term, node.term);
+            if (distance == 0) {
+                return;
+            }
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Retorna os termos a no máximo {@code maxDistance} edições do termo, com a distância de cada um.
+     */
+    Map<String, Integer> search(String term, int maxDistance) {
+        Map<String, Integer> matches = new LinkedHashMap<>();
+        Node start = root;
+        if (start == null) {
+            return matches;
+        }
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(term, node.term);
+            if (distance <= maxDistance) {
+                matches.put(node.term, distance);
+            }
+
+            // Pela desigualdade triangular, só filhos nesta faixa podem estar próximos do termo
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.children.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Distância de Levenshtein.
+     */
+    static int distance(String a, String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String term;
+        private final Map<Integer, Node> children = new ConcurrentHashMap<>();
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+}
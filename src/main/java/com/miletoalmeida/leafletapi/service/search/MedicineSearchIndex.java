@@ -0,0 +1,345 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.model.Medicine;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import com.miletoalmeida.leafletapi.service.RefreshAheadService;
+import com.miletoalmeida.leafletapi.util.TextNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido em memória sobre os medicamentos persistidos.
+ *
+ * Nome do produto, princípio ativo e empresa são quebrados em termos sem acento
+ * ({@link TextNormalizer#tokens}). Cada termo da busca casa por prefixo e os
+ * resultados são a interseção entre os termos. Leituras não usam lock; escritas
+ * são serializadas para manter as listas de postagem consistentes.
+ */
+@Slf4j
+@Component
+public class MedicineSearchIndex {
+
+    private final MedicineRepository medicineRepository;
+    private final RefreshAheadService refreshAheadService;
+    private final SearchIndexProperties properties;
+    private final MedicineSuggestIndex suggestIndex;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, IndexedMedicine> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    private final BkTree vocabulary = new BkTree();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean ready;
+    private volatile boolean catalogComplete;
+
+    public MedicineSearchIndex(MedicineRepository medicineRepository,
+                               RefreshAheadService refreshAheadService,
+                               SearchIndexProperties properties,
+                               MedicineSuggestIndex suggestIndex,
+                               MeterRegistry meterRegistry) {
+        this.medicineRepository = medicineRepository;
+        this.refreshAheadService = refreshAheadService;
+        this.properties = properties;
+        this.suggestIndex = suggestIndex;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("medicine.search.index.documents", documents, Map::size)
+                .description("Medicamentos no índice de busca local")
+                .register(meterRegistry);
+        Gauge.builder("medicine.search.index.terms", postings, Map::size)
+                .description("Termos distintos no índice de busca local")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carrega no índice todos os medicamentos do banco, em lotes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        PageRequest pageRequest = PageRequest.of(0, properties.getBootstrapBatchSize(), Sort.by("registryNumber"));
+        Page<Medicine> page;
+
+        do {
+            page = medicineRepository.findAll(pageRequest);
+            index(page.getContent().stream().map(MedicineDTO::new).collect(Collectors.toList()));
+            pageRequest = pageRequest.next();
+        } while (page.hasNext());
+
+        ready = true;
+        log.info("Índice de busca local construído com {} medicamentos e {} termos em {} ms",
+                documents.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Marca que o catálogo da Anvisa foi rastreado por completo. A partir daí qualquer
+     * resultado local é suficiente para responder a busca.
+     */
+    public void setCatalogComplete(boolean catalogComplete) {
+        this.catalogComplete = catalogComplete;
+    }
+
+    /**
+     * Adiciona ou substitui medicamentos no índice e nas sugestões.
+     */
+    public void index(Collection<MedicineDTO> medicines) {
+        writeLock.lock();
+        try {
+            List<String> added = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+
+            for (MedicineDTO medicine : medicines) {
+                if (medicine.getRegistryNumber() == null) {
+                    continue;
+                }
+                removeInternal(medicine.getRegistryNumber(), removed);
+
+                Set<String> tokens = new HashSet<>();
+                tokens.addAll(tokenize(medicine.getProductName()));
+                tokens.addAll(tokenize(medicine.getActiveIngredient()));
+                tokens.addAll(tokenize(medicine.getCompany()));
+
+                String normalizedName = String.join(" ", tokenize(medicine.getProductName()));
+                IndexedMedicine indexed = new IndexedMedicine(medicine, normalizedName, tokens);
+                for (String token : tokens) {
+                    postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(medicine.getRegistryNumber());
+                    vocabulary.add(token);
+                }
+                documents.put(medicine.getRegistryNumber(), indexed);
+                added.addAll(suggestionTexts(medicine));
+            }
+
+            // Adições antes das remoções para não descartar a popularidade de quem só foi atualizado
+            suggestIndex.updateCatalog(added, 1);
+            suggestIndex.updateCatalog(removed, -1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove medicamentos do índice pelo número de registro.
+     */
+    public void remove(Collection<String> registryNumbers) {
+        writeLock.lock();
+        try {
+            List<String> removed = new ArrayList<>();
+            registryNumbers.forEach(registryNumber -> removeInternal(registryNumber, removed));
+            suggestIndex.updateCatalog(removed, -1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Responde a busca localmente quando o índice cobre a consulta.
+     *
+     * @param query Termo de busca
+     * @return resultados locais, ou vazio se o índice não estiver pronto ou tiver
+     *         menos de {@code minLocalResults} resultados (um, com o catálogo completo)
+     */
+    public Optional<List<MedicineDTO>> searchCovered(String query) {
+        if (!properties.isEnabled() || !ready) {
+            return Optional.empty();
+        }
+
+        List<MedicineDTO> medicines = search(query);
+        int minResults = catalogComplete ? 1 : properties.getMinLocalResults();
+        boolean covered = medicines.size() >= minResults;
+        meterRegistry.counter("medicine.search.local", "result", covered ? "hit" : "miss").increment();
+
+        return covered ? Optional.of(medicines) : Optional.empty();
+    }
+
+    /**
+     * Busca medicamentos cujos termos comecem com cada termo da consulta.
+     *
+     * Entradas que não podem mais ser servidas (expiradas além do limite de stale)
+     * são ignoradas. Produtos cujo nome começa pela consulta vêm primeiro.
+     *
+     * @param query Termo de busca
+     * @return até {@code maxResults} medicamentos, ordenados por relevância e nome
+     */
+    public List<MedicineDTO> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> matches = null;
+        for (String term : terms) {
+            Set<String> termMatches = prefixMatches(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        String normalizedQuery = String.join(" ", terms);
+        return matches.stream()
+                .map(documents::get)
+                .filter(indexed -> indexed != null
+                        && refreshAheadService.isServable(indexed.medicine().getCacheExpiry()))
+                .sorted(Comparator
+                        .comparing((IndexedMedicine indexed) -> !indexed.normalizedName().startsWith(normalizedQuery))
+                        .thenComparing(IndexedMedicine::normalizedName))
+                .limit(properties.getMaxResults())
+                .map(IndexedMedicine::medicine)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Busca tolerante a erros de digitação.
+     *
+     * Cada termo da consulta casa por prefixo (custo zero) ou com termos do vocabulário a
+     * poucas edições de distância, encontrados na {@link BkTree}. Os resultados são a
+     * interseção entre os termos, ordenados pela soma das distâncias e depois pelo nome.
+     *
+     * @param query Termo de busca, possivelmente com erros
+     * @return até {@code maxResults} medicamentos, ou lista vazia se o índice estiver
+     *         desabilitado ou ainda não pronto, como em {@link #searchCovered}
+     */
+    public List<MedicineDTO> searchFuzzy(String query) {
+        if (!properties.isEnabled() || !ready) {
+            return List.of();
+        }
+
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> costs = null;
+        for (String term : terms) {
+            Map<String, Integer> termCosts = new HashMap<>();
+            prefixMatches(term).forEach(registryNumber -> termCosts.put(registryNumber, 0));
+
+            int maxDistance = maxEditDistance(term);
+            if (maxDistance > 0) {
+                vocabulary.search(term, maxDistance).forEach((candidate, distance) -> {
+                    Set<String> registryNumbers = postings.get(candidate);
+                    if (registryNumbers != null) {
+                        registryNumbers.forEach(registryNumber -> termCosts.merge(registryNumber, distance, Math::min));
+                    }
+                });
+            }
+
+            if (costs == null) {
+                costs = termCosts;
+            } else {
+                costs.keySet().retainAll(termCosts.keySet());
+                costs.replaceAll((registryNumber, cost) -> cost + termCosts.get(registryNumber));
+            }
+            if (costs.isEmpty()) {
+                break;
+            }
+        }
+
+        Map<String, Integer> totals = costs;
+        List<MedicineDTO> medicines = totals.keySet().stream()
+                .map(documents::get)
+                .filter(indexed -> indexed != null
+                        && refreshAheadService.isServable(indexed.medicine().getCacheExpiry()))
+                .sorted(Comparator
+                        .comparing((IndexedMedicine indexed) -> totals.get(indexed.medicine().getRegistryNumber()))
+                        .thenComparing(IndexedMedicine::normalizedName))
+                .limit(properties.getMaxResults())
+                .map(IndexedMedicine::medicine)
+                .collect(Collectors.toList());
+
+        meterRegistry.counter("medicine.search.fuzzy", "result", medicines.isEmpty() ? "miss" : "hit").increment();
+        return medicines;
+    }
+
+    /**
+     * Termos curtos exigem correspondência exata; termos longos toleram mais edições.
+     */
+    private int maxEditDistance(String term) {
+        int byLength = term.length() <= 3 ? 0 : term.length() <= 7 ? 1 : 2;
+        return Math.min(byLength, properties.getMaxEditDistance());
+    }
+
+    /**
+     * Quebra o texto em termos minúsculos e sem acento.
+     */
+    public static List<String> tokenize(String text) {
+        return TextNormalizer.tokens(text);
+    }
+
+    private Set<String> prefixMatches(String term) {
+        NavigableMap<String, Set<String>> range = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        Set<String> result = new LinkedHashSet<>();
+        range.values().forEach(result::addAll);
+        return result;
+    }
+
+    private void removeInternal(String registryNumber, List<String> removedSuggestions) {
+        IndexedMedicine previous = documents.remove(registryNumber);
+        if (previous == null) {
+            return;
+        }
+        removedSuggestions.addAll(suggestionTexts(previous.medicine()));
+
+        for (String token : previous.tokens()) {
+            postings.computeIfPresent(token, (key, registryNumbers) -> {
+                registryNumbers.remove(registryNumber);
+                return registryNumbers.isEmpty() ? null : registryNumbers;
+            });
+        }
+    }
+
+    private static List<String> suggestionTexts(MedicineDTO medicine) {
+        List<String> texts = new ArrayList<>(2);
+        if (medicine.getProductName() != null && !medicine.getProductName().isBlank()) {
+            texts.add(medicine.getProductName());
+        }
+        if (medicine.getActiveIngredient() != null && !medicine.getActiveIngredient().isBlank()) {
+            texts.add(medicine.getActiveIngredient());
+        }
+        return texts;
+    }
+
+    private record IndexedMedicine(MedicineDTO medicine, String normalizedName, Set<String> tokens) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Trie de sugestões para autocompletar nomes de produtos e princípios ativos.
+ *
+ * Cada nó guarda as {@code suggestTopK} sugestões mais populares da sua subárvore, então
+ * uma consulta só percorre os caracteres do prefixo. A popularidade é o número de
+ * registros no catálogo com aquele nome somado ao número de buscas feitas por ele.
+ *
+ * Os filhos de cada nó ficam em arrays ordenados, substituídos por cópia nas escritas;
+ * leituras não usam lock e escritas são serializadas.
+ */
+@Component
+public class MedicineSuggestIndex {
+
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingLong(Suggestion::weight).reversed()
+            .thenComparing(suggestion -> suggestion.key);
+
+    private final SearchIndexProperties properties;
+    private final Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public MedicineSuggestIndex(SearchIndexProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Retorna as sugestões mais populares que começam com o prefixo.
+     *
+     * @param prefix Prefixo digitado, sem distinção de acentos ou maiúsculas
+     * @param limit Quantidade máxima de sugestões
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        return node.top.stream()
+                .limit(Math.min(limit, properties.getSuggestTopK()))
+                .map(suggestion -> suggestion.text)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Atualiza a contagem de registros no catálogo. Cada texto é uma alteração de uma
+     * unidade, positiva ou negativa conforme {@code delta}.
+     */
+    public void updateCatalog(List<String> texts, int delta) {
+        if (texts.isEmpty()) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            Set<Node> touched = new LinkedHashSet<>();
+            for (String text : texts) {
+                String key = normalize(text);
+                if (key.isEmpty()) {
+                    continue;
+                }
+
+                Suggestion suggestion = suggestions.computeIfAbsent(key, k -> new Suggestion(k, text.trim()));
+                suggestion.catalogCount = Math.max(0, suggestion.catalogCount + delta);
+                place(suggestion, touched);
+            }
+            recompute(touched);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Registra uma busca, aumentando a popularidade da sugestão correspondente.
+     */
+    public void recordSearch(String query) {
+        String key = normalize(query);
+
+        writeLock.lock();
+        try {
+            Suggestion suggestion = suggestions.get(key);
+            if (suggestion == null) {
+                return;
+            }
+
+            suggestion.searchCount++;
+            Set<Node> touched = new LinkedHashSet<>();
+            place(suggestion, touched);
+            recompute(touched);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void place(Suggestion suggestion, Set<Node> touched) {
+        Node node = root;
+        touched.add(node);
+        for (int i = 0; i < suggestion.key.length(); i++) {
+            node = node.childOrCreate(suggestion.key.charAt(i));
+            touched.add(node);
+        }
+
+        if (suggestion.catalogCount > 0) {
+            node.terminal = suggestion;
+        } else {
+            node.terminal = null;
+            suggestions.remove(suggestion.key);
+        }
+    }
+
+    /**
+     * Recalcula o top-K dos nós alterados, das folhas para a raiz.
+     */
+    private void recompute(Set<Node> touched) {
+        List<Node> nodes = new ArrayList<>(touched);
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node node = nodes.get(i);
+            List<Suggestion> candidates = new ArrayList<>();
+            if (node.terminal != null) {
+                candidates.add(node.terminal);
+            }
+            for (Node child : node.children.nodes()) {
+                candidates.addAll(child.top);
+            }
+            node.top = candidates.stream()
+                    .distinct()
+                    .sorted(BY_POPULARITY)
+                    .limit(properties.getSuggestTopK())
+                    .toList();
+        }
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", MedicineSearchIndex.tokenize(text));
+    }
+
+    private static final class Suggestion {
+        private final String key;
+        private final String text;
+        private int catalogCount;
+        private long searchCount;
+
+        private Suggestion(String key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+
+        private long weight() {
+            return catalogCount + searchCount;
+        }
+    }
+
+    private static final class Node {
+        private volatile Children children = Children.EMPTY;
+        private volatile Suggestion terminal;
+        private volatile List<Suggestion> top = List.of();
+
+        private Node child(char label) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.labels, label);
+            return index >= 0 ? current.nodes[index] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            Children current = children;
+            int index = Arrays.binarySearch(current.labels, label);
+            if (index >= 0) {
+                return current.nodes[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+            children = current.with(insertAt, label, child);
+            return child;
+        }
+    }
+
+    /**
+     * Rótulos e nós filhos, ordenados pelo rótulo. Imutável para que leitores vejam
+     * sempre os dois arrays consistentes entre si.
+     */
+    private record Children(char[] labels, Node[] nodes) {
+
+        private static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        private Children with(int insertAt, char label, Node node) {
+            char[] newLabels = new char[labels.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            newLabels[insertAt] = label;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+
+            Node[] newNodes = new Node[nodes.length + 1];
+            System.arraycopy(nodes, 0, newNodes, 0, insertAt);
+            newNodes[insertAt] = node;
+            System.arraycopy(nodes, insertAt, newNodes, insertAt + 1, nodes.length - insertAt);
+
+            return new Children(newLabels, newNodes);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.miletoalmeida.leafletapi.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@UtilityClass
+public class CompressionUtils {
+
+    /**
+     * Comprime o texto em gzip (UTF-8).
+     *
+     * @param text O texto para ser comprimido
+     * @return bytes em gzip, ou null se o texto for null
+     */
+    public static byte[] gzip(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao comprimir texto", e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Descomprime bytes em gzip para texto (UTF-8).
+     *
+     * @param compressed Os bytes em gzip
+     * @return texto descomprimido, ou null se os bytes forem null
+     */
+    public static String gunzip(byte[] compressed) {
+        if (compressed == null) {
+            return null;
+        }
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao descomprimir texto", e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.miletoalmeida.leafletapi.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normaliza texto para chaves de cache, indexação e consultas numa única passada.
+ *
+ * Cada caractere é resolvido numa tabela que já combina as transformações: letras
+ * acentuadas viram a letra sem acento, maiúsculas viram minúsculas, pontuação e espaços
+ * separam palavras e acentos combinantes somem. Sequências de separadores viram um só
+ * e as pontas são aparadas. O resultado só tem letras de a a z, dígitos e o separador.
+ *
+ * Quando o texto já está normalizado, ele mesmo é devolvido, sem alocar.
+ */
+@UtilityClass
+public class TextNormalizer {
+
+    public static final char SPACE = ' ';
+
+    // Marcas da tabela; nenhuma é um caractere que possa sair no resultado
+    private static final char DROP = 0;
+    private static final char BREAK = 1;
+    private static final char EXPAND = 2;
+
+    // Latin-1, Latin Extended-A/B, IPA e os acentos combinantes (U+0300 a U+036F)
+    private static final int TABLE_SIZE = 0x370;
+    private static final char[] TABLE = new char[TABLE_SIZE];
+    private static final String[] EXPANSIONS = new String[TABLE_SIZE];
+
+    // Letras que não se decompõem em letra + acento; o micro de "µg" vira "u", como em "ug"
+    private static final Map<Character, String> SPECIAL_LETTERS = Map.ofEntries(
+            Map.entry('ß', "ss"), Map.entry('æ', "ae"), Map.entry('Æ', "ae"), Map.entry('œ', "oe"),
+            Map.entry('Œ', "oe"), Map.entry('ø', "o"), Map.entry('Ø', "o"), Map.entry('đ', "d"),
+            Map.entry('Đ', "d"), Map.entry('ł', "l"), Map.entry('Ł', "l"), Map.entry('ħ', "h"),
+            Map.entry('Ħ', "h"), Map.entry('ı', "i"), Map.entry('þ', "th"), Map.entry('Þ', "th"),
+            Map.entry('µ', "u"));
+
+    static {
+        for (char c = 0; c < TABLE_SIZE; c++) {
+            String folded = SPECIAL_LETTERS.getOrDefault(c, fold(c));
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                TABLE[c] = DROP;
+            } else if (folded.length() == 1) {
+                TABLE[c] = folded.charAt(0);
+            } else if (!folded.isEmpty()) {
+                TABLE[c] = EXPAND;
+                EXPANSIONS[c] = folded;
+            } else {
+                TABLE[c] = Character.isLetterOrDigit(c) ? DROP : BREAK;
+            }
+        }
+    }
+
+    /**
+     * Normaliza com espaço entre as palavras: "Dipirona  SÓDICA-500mg" vira "dipirona sodica 500mg".
+     *
+     * @param text O texto para ser normalizado
+     * @return texto normalizado, ou vazio se o texto for null
+     */
+    public static String normalize(String text) {
+        return normalize(text, SPACE);
+    }
+
+    /**
+     * @param text O texto para ser normalizado
+     * @param separator Caractere colocado entre as palavras
+     * @return texto normalizado, ou vazio se o texto for null
+     */
+    public static String normalize(String text, char separator) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        Output out = new Output(text);
+        boolean pendingSeparator = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char mapped = c < TABLE_SIZE ? TABLE[c] : outsideTable(c);
+
+            if (mapped == BREAK) {
+                pendingSeparator = out.length() > 0;
+            } else if (mapped != DROP) {
+                if (pendingSeparator) {
+                    out.append(separator);
+                    pendingSeparator = false;
+                }
+                if (mapped == EXPAND) {
+                    out.append(EXPANSIONS[c]);
+                } else {
+                    out.append(mapped);
+                }
+            }
+        }
+        return out.result();
+    }
+
+    /**
+     * Termos normalizados do texto, na ordem em que aparecem.
+     */
+    public static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = normalized.indexOf(SPACE, start)) >= 0) {
+            tokens.add(normalized.substring(start, end));
+            start = end + 1;
+        }
+        tokens.add(normalized.substring(start));
+        return tokens;
+    }
+
+    /**
+     * Chave de cache no formato {@code prefixo_termo_termo}.
+     */
+    public static String cacheKey(String prefix, String value) {
+        String normalized = normalize(value, '_');
+        return new StringBuilder(prefix.length() + 1 + normalized.length())
+                .append(prefix)
+                .append('_')
+                .append(normalized)
+                .toString();
+    }
+
+    /**
+     * Reduz cada sequência de espaços em branco a um espaço e apara as pontas, sem
+     * alterar os demais caracteres.
+     */
+    public static String collapseWhitespace(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        Output out = new Output(text);
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    out.append(SPACE);
+                    pendingSpace = false;
+                }
+                out.append(c);
+            }
+        }
+        return out.result();
+    }
+
+    private static char outsideTable(char c) {
+        // Letras de outros alfabetos e símbolos não têm equivalente em a-z
+        return Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK ? DROP : BREAK;
+    }
+
+    /**
+     * Forma sem acento e minúscula do caractere quando ela só tem letras de a a z e dígitos;
+     * vazio caso contrário. Só é usado para montar a tabela.
+     */
+    private static String fold(char c) {
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char part = Character.toLowerCase(decomposed.charAt(i));
+            if ((part >= 'a' && part <= 'z') || (part >= '0' && part <= '9')) {
+                folded.append(part);
+            } else if (Character.getType(part) != Character.NON_SPACING_MARK) {
+                return "";
+            }
+        }
+        return folded.toString();
+    }
+
+    // Mesmos caracteres de \s nas expressões regulares
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Resultado em construção. Enquanto coincide com o começo do texto original, só
+     * avança uma posição; o buffer é criado na primeira diferença.
+     */
+    private static final class Output {
+
+        private final String source;
+        private StringBuilder buffer;
+        private int length;
+
+        private Output(String source) {
+            this.source = source;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void append(char c) {
+            if (buffer == null) {
+                if (length < source.length() && source.charAt(length) == c) {
+                    length++;
+                    return;
+                }
+                buffer = new StringBuilder(source.length()).append(source, 0, length);
+            }
+            buffer.append(c);
+            length++;
+        }
+
+        void append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+        }
+
+        String result() {
+            if (buffer != null) {
+                return buffer.toString();
+            }
+            return length == source.length() ? source : source.substring(0, length);
+        }
+    }
+}
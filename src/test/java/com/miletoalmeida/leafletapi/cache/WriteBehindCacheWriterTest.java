@@ -0,0 +1,206 @@
+package com.miletoalmeida.leafletapi.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.TieredCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindCacheWriterTest {
+
+    private static final LocalDateTime EXPIRES_AT = LocalDateTime.now().plusHours(1);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TieredCacheProperties properties = new TieredCacheProperties();
+    private final TieredCacheProperties.WriteBehind writeBehind = properties.getWriteBehind();
+
+    // Linhas gravadas por UPDATE, na ordem: valor serializado, expiração, chave, tipo
+    private final List<Object[]> written = new CopyOnWriteArrayList<>();
+    private WriteBehindCacheWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind.setFlushInterval(Duration.ofHours(1));
+        writeBehind.setBatchSize(100);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> update(invocation.getArgument(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void repeatedWritesToKeyAreCoalesced() {
+        writer = start();
+
+        writer.enqueue("101230001", "medicine", Map.of("name", "Dipirona"), EXPIRES_AT);
+        writer.enqueue("101230001", "medicine", Map.of("name", "Dipirona Sódica"), EXPIRES_AT);
+        writer.enqueue("101230002", "medicine", Map.of("name", "Novalgina"), EXPIRES_AT);
+        assertThat(writer.getPending("101230001", "medicine")).contains("{\"name\":\"Dipirona Sódica\"}");
+
+        writer.stop();
+
+        assertThat(written).extracting(row -> row[2] + "=" + row[0]).containsExactly(
+                "101230001={\"name\":\"Dipirona Sódica\"}",
+                "101230002={\"name\":\"Novalgina\"}");
+        assertThat(meterRegistry.get("cache.write_behind.coalesced").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.write_behind.flushed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void valueIsCapturedWhenEnqueued() {
+        writer = start();
+        Map<String, String> value = new HashMap<>(Map.of("name", "Dipirona"));
+
+        writer.enqueue("101230001", "medicine", value, EXPIRES_AT);
+        value.put("name", "alterado depois");
+
+        assertThat(writer.getPending("101230001", "medicine")).contains("{\"name\":\"Dipirona\"}");
+        writer.stop();
+        assertThat(written).extracting(row -> row[0]).containsExactly("{\"name\":\"Dipirona\"}");
+    }
+
+    @Test
+    void fullQueueMakesCallerWriteSynchronously() {
+        writeBehind.setCapacity(2);
+        writeBehind.setOfferTimeout(Duration.ofMillis(20));
+        writer = start();
+
+        writer.enqueue("1", "medicine", "a", EXPIRES_AT);
+        writer.enqueue("2", "medicine", "b", EXPIRES_AT);
+        assertThat(written).isEmpty();
+
+        long started = System.nanoTime();
+        writer.enqueue("3", "medicine", "c", EXPIRES_AT);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(20));
+        assertThat(written).extracting(row -> row[2]).containsExactly("3");
+        assertThat(meterRegistry.get("cache.write_behind.synchronous").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.write_behind.pending").gauge().value()).isEqualTo(2);
+
+        // Chave já pendente não ocupa vaga nova: substitui o valor sem esperar
+        writer.enqueue("1", "medicine", "a2", EXPIRES_AT);
+        assertThat(written).hasSize(1);
+        assertThat(writer.getPending("1", "medicine")).contains("\"a2\"");
+    }
+
+    @Test
+    void discardWaitsForBatchBeingWritten() throws Exception {
+        writeBehind.setBatchSize(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return update(invocation.getArgument(1));
+        });
+        writer = start();
+
+        writer.enqueue("101230001", "medicine", "antigo", EXPIRES_AT);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> discard = CompletableFuture.runAsync(() -> writer.discard("101230001", "medicine"));
+        assertThatThrownBy(() -> discard.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        discard.get(5, TimeUnit.SECONDS);
+
+        // Depois do descarte o lote já terminou: a remoção no banco feita em seguida prevalece
+        int writesAtDiscard = written.size();
+        writer.stop();
+        assertThat(written).hasSize(writesAtDiscard);
+        assertThat(writer.getPending("101230001", "medicine")).isEmpty();
+    }
+
+    @Test
+    void writesDiscardedWhileWaitingForBatchAreSkipped() throws Exception {
+        writeBehind.setBatchSize(1);
+        writeBehind.setCapacity(1);
+        writeBehind.setOfferTimeout(Duration.ofMillis(10));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean discarded = new AtomicBoolean();
+        List<Object> writtenAfterDiscard = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> "1".equals(row[2]))) {
+                writing.countDown();
+                assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            if (discarded.get()) {
+                rows.forEach(row -> writtenAfterDiscard.add(row[2]));
+            }
+            return update(rows);
+        });
+        writer = start();
+
+        // O flusher fica preso gravando "1"; "2" ocupa a fila e "3" cai na gravação síncrona
+        writer.enqueue("1", "medicine", "a", EXPIRES_AT);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.enqueue("2", "medicine", "b", EXPIRES_AT);
+        CompletableFuture<Void> synchronousWrite =
+                CompletableFuture.runAsync(() -> writer.enqueue("3", "medicine", "c", EXPIRES_AT));
+        awaitSynchronousWrite();
+
+        CompletableFuture<Void> discard = CompletableFuture.runAsync(() -> {
+            writer.discardAll("medicine");
+            discarded.set(true);
+        });
+        release.countDown();
+        discard.get(5, TimeUnit.SECONDS);
+        synchronousWrite.get(5, TimeUnit.SECONDS);
+        writer.stop();
+
+        assertThat(writtenAfterDiscard).isEmpty();
+        assertThat(writer.getPending("2", "medicine")).isEmpty();
+        assertThat(writer.getPending("3", "medicine")).isEmpty();
+    }
+
+    private WriteBehindCacheWriter start() {
+        WriteBehindCacheWriter started = new WriteBehindCacheWriter(jdbcTemplate, new ObjectMapper(), properties, meterRegistry);
+        started.start();
+        return started;
+    }
+
+    private int[] update(List<Object[]> rows) {
+        written.addAll(new ArrayList<>(rows));
+        int[] updated = new int[rows.size()];
+        Arrays.fill(updated, 1);
+        return updated;
+    }
+
+    private void awaitSynchronousWrite() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("cache.write_behind.synchronous").counter().count() < 1) {
+            assertThat(System.nanoTime()).as("gravação síncrona").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
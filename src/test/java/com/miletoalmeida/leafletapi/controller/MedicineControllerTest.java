@@ -0,0 +1,101 @@
+package com.miletoalmeida.leafletapi.controller;
+
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import com.miletoalmeida.leafletapi.exception.GlobalExceptionHandler;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import com.miletoalmeida.leafletapi.service.LeafletService;
+import com.miletoalmeida.leafletapi.service.MedicineService;
+import com.miletoalmeida.leafletapi.service.RefreshAheadService;
+import com.miletoalmeida.leafletapi.service.RequestCoalescingService;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.service.search.MedicineSearchIndex;
+import com.miletoalmeida.leafletapi.service.search.MedicineSuggestIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * As buscas paginada e não paginada respondem da mesma forma quando a Anvisa falha, e
+ * toda busca conta para a popularidade das sugestões.
+ */
+class MedicineControllerTest {
+
+    private final AnvisaScrapingService anvisaScrapingService = mock(AnvisaScrapingService.class);
+    private MedicineService medicineService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MedicineRepository medicineRepository = mock(MedicineRepository.class);
+        RefreshAheadService refreshAheadService = mock(RefreshAheadService.class);
+        SearchIndexProperties properties = new SearchIndexProperties();
+        MedicineSuggestIndex suggestIndex = new MedicineSuggestIndex(properties);
+        MedicineSearchIndex searchIndex = new MedicineSearchIndex(medicineRepository, refreshAheadService,
+                properties, suggestIndex, new SimpleMeterRegistry());
+
+        medicineService = spy(new MedicineService(anvisaScrapingService, medicineRepository,
+                new RequestCoalescingService(new SimpleMeterRegistry()), refreshAheadService,
+                new ConcurrentMapCacheManager(), new AnvisaProperties(), searchIndex, suggestIndex));
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new MedicineController(medicineService, mock(LeafletService.class), refreshAheadService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void pagedSearchReturnsScrapingError() throws Exception {
+        anvisaFails();
+
+        mockMvc.perform(get("/api/medicines/search").param("query", "dipirona").param("page", "0").param("size", "10"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Erro ao buscar medicamentos: Anvisa indisponível"));
+    }
+
+    @Test
+    void unpagedSearchReturnsSameScrapingError() throws Exception {
+        anvisaFails();
+
+        mockMvc.perform(get("/api/medicines/search").param("query", "dipirona"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Erro ao buscar medicamentos: Anvisa indisponível"));
+    }
+
+    @Test
+    void everySearchRequestIsRecorded() throws Exception {
+        when(anvisaScrapingService.searchMedicines(anyString())).thenReturn(List.of());
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/medicines/search").param("query", "diclofenaco"))
+                    .andExpect(status().isOk());
+        }
+
+        verify(medicineService, times(3)).recordSearch("diclofenaco");
+    }
+
+    private void anvisaFails() {
+        ScrapingException failure = new ScrapingException("Anvisa indisponível", null,
+                ScrapingException.ScrapingErrorType.SERVICE_UNAVAILABLE);
+        when(anvisaScrapingService.searchMedicines(anyString())).thenThrow(failure);
+        when(anvisaScrapingService.searchMedicinesPage(anyString(), anyInt(), anyInt())).thenReturn(Mono.error(failure));
+    }
+}
@@ -0,0 +1,108 @@
+package com.miletoalmeida.leafletapi.load;
+
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mede quantas requisições lentas o servidor atende em paralelo.
+ *
+ * A Anvisa é substituída por um mock que bloqueia por {@link #UPSTREAM_LATENCY}; cada
+ * requisição usa um número de registro distinto, então nada é agrupado nem vem do cache.
+ * Com {@link #TOMCAT_THREADS} threads de plataforma o teto é de
+ * TOMCAT_THREADS / UPSTREAM_LATENCY requisições por segundo.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + AbstractConcurrencyCeilingLoadTest.TOMCAT_THREADS,
+                "leafletapi.refresh.enabled=false"
+        })
+abstract class AbstractConcurrencyCeilingLoadTest {
+
+    static final int TOMCAT_THREADS = 20;
+    static final int CONCURRENT_REQUESTS = 200;
+    static final Duration UPSTREAM_LATENCY = Duration.ofMillis(500);
+
+    /**
+     * Tempo mínimo para atender todas as requisições com o pool de threads de plataforma.
+     */
+    static final Duration PLATFORM_CEILING = UPSTREAM_LATENCY.multipliedBy(CONCURRENT_REQUESTS / TOMCAT_THREADS);
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private AnvisaScrapingService anvisaScrapingService;
+
+    @BeforeEach
+    void stubSlowUpstream() {
+        when(anvisaScrapingService.searchMedicines(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(UPSTREAM_LATENCY.toMillis());
+            return List.of(medicine(invocation.getArgument(0)));
+        });
+    }
+
+    protected Duration runConcurrentLookups() {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            String registryNumber = String.valueOf(100000000 + i);
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/api/medicines/" + registryNumber))
+                    .timeout(Duration.ofMinutes(1))
+                    .GET()
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+
+        log.info("[{}] {} requisições concorrentes em {} ms ({} req/s, teto com {} threads de plataforma: {} ms)",
+                getClass().getSimpleName(),
+                CONCURRENT_REQUESTS,
+                elapsed.toMillis(),
+                String.format("%.1f", CONCURRENT_REQUESTS * 1000.0 / Math.max(1, elapsed.toMillis())),
+                TOMCAT_THREADS,
+                PLATFORM_CEILING.toMillis());
+
+        return elapsed;
+    }
+
+    private static MedicineDTO medicine(String registryNumber) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setRegistryNumber(registryNumber);
+        medicine.setProductName("Produto " + registryNumber);
+        return medicine;
+    }
+}
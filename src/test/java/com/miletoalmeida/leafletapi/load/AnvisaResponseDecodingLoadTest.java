@@ -0,0 +1,100 @@
+package com.miletoalmeida.leafletapi.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaResponseDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a memória alocada para decodificar uma resposta grande do bulário.
+ *
+ * "Agregado" reproduz o caminho antigo: os buffers são reunidos, convertidos numa String
+ * e lidos como árvore {@code JsonNode}. "Streaming" entrega os mesmos buffers de 8 KB ao
+ * {@link AnvisaResponseDecoder}. A alocação é medida por thread com
+ * {@code com.sun.management.ThreadMXBean}.
+ */
+@Slf4j
+@Tag("load")
+class AnvisaResponseDecodingLoadTest {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int ITERATIONS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnvisaResponseDecoder decoder = new AnvisaResponseDecoder(objectMapper, new AnvisaProperties());
+
+    @Test
+    void streamingDecodeAllocatesLessThanAggregatedTree() {
+        byte[] response = leafletResponse(2_000).getBytes(StandardCharsets.UTF_8);
+
+        long aggregated = allocatedPerRun(() -> decodeAggregated(response));
+        long streaming = allocatedPerRun(() -> decoder.decodeLeaflet(buffers(response)).block());
+
+        log.info("Resposta de {} KB: agregado {} KB, streaming {} KB alocados por decodificação ({}x)",
+                response.length / 1024, aggregated / 1024, streaming / 1024,
+                String.format("%.1f", aggregated / (double) streaming));
+
+        assertThat(streaming).isLessThan(aggregated);
+    }
+
+    private LeafletDTO decodeAggregated(byte[] response) {
+        DataBuffer joined = DataBufferUtils.join(buffers(response)).block();
+        String body = joined.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(joined);
+
+        try {
+            JsonNode first = objectMapper.readTree(body).path("content").get(0);
+            LeafletDTO leaflet = new LeafletDTO();
+            leaflet.setPatientLeaflet(first.path("textoRotulagem").asText(""));
+            leaflet.setProfessionalLeaflet(first.path("textoBula").asText(""));
+            return leaflet;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long allocatedPerRun(Supplier<LeafletDTO> decode) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertThat(decode.get().getProfessionalLeaflet()).isNotEmpty();
+        }
+
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decode.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - start) / ITERATIONS;
+    }
+
+    private static Flux<DataBuffer> buffers(byte[] response) {
+        return Flux.range(0, (response.length + BUFFER_SIZE - 1) / BUFFER_SIZE)
+                .map(index -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(response,
+                        index * BUFFER_SIZE, Math.min(response.length, (index + 1) * BUFFER_SIZE))));
+    }
+
+    private static String leafletResponse(int paragraphs) {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < paragraphs; i++) {
+            html.append("<p>").append(i).append(". Informe ao seu médico o aparecimento de reações indesejáveis.</p>");
+        }
+        String text = html.toString().replace("\"", "\\\"");
+
+        return "{\"content\": [{\"textoRotulagem\": \"" + text + "\", \"textoBula\": \"" + text + "\"}],"
+                + " \"totalElements\": 1}";
+    }
+}
@@ -0,0 +1,194 @@
+package com.miletoalmeida.leafletapi.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteiro de carga contra os endpoints reais, com o {@link AnvisaStandInServer} no lugar
+ * da Anvisa. Roda sem rede: mvn -Pload-test test -Dtest=AnvisaStandInLoadTest
+ *
+ * Cada cenário dispara um número fixo de requisições com concorrência fixa e imprime
+ * vazão, percentis de latência, status das respostas e chamadas recebidas pela Anvisa local.
+ *
+ * O intervalo mínimo do pacer é zerado para que a medida reflita a aplicação, e não o
+ * ritmo imposto à Anvisa real. Os retries das respostas 429/503 continuam valendo e o
+ * intervalo volta a crescer a partir de leafletapi.anvisa.pacing.min-backoff.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "leafletapi.refresh.enabled=false",
+                "leafletapi.anvisa.pacing.min-interval=0s",
+                "leafletapi.anvisa.pacing.jitter=0"
+        })
+class AnvisaStandInLoadTest {
+
+    private static final AnvisaStandInServer ANVISA = new AnvisaStandInServer().start(0);
+
+    private static final List<String> HOT_QUERIES = List.of("dipirona", "paracetamol", "ibuprofeno", "losartana", "amoxicilina");
+
+    // Faixas distintas de registros por cenário, para que um não aproveite o cache do outro
+    private static final int LEAFLET_REGISTRIES = 200_000_000;
+    private static final int MEDICINE_REGISTRIES = 300_000_000;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void anvisaBaseUrl(DynamicPropertyRegistry registry) {
+        registry.add("leafletapi.anvisa.base-url", ANVISA::baseUrl);
+    }
+
+    @AfterAll
+    static void stopAnvisa() {
+        ANVISA.close();
+    }
+
+    @BeforeEach
+    void resetAnvisa() {
+        ANVISA.reset();
+    }
+
+    @Test
+    void hotSearchQueriesReachAnvisaOncePerQuery() {
+        ANVISA.latency(AnvisaStandInServer.Latency.fixed(Duration.ofMillis(200)));
+
+        Report report = run(new Scenario("busca com termos repetidos", 500, 50,
+                i -> "/api/medicines/search?query=" + HOT_QUERIES.get(i % HOT_QUERIES.size())));
+
+        assertThat(report.count(200)).isEqualTo(500);
+        // Coalescência nas falhas simultâneas e cache depois disso; a folga cobre uma falha
+        // que chega entre o fim da chamada agrupada e a gravação no cache
+        assertThat(ANVISA.searchCalls()).isLessThanOrEqualTo(HOT_QUERIES.size() * 2L);
+    }
+
+    @Test
+    void distinctLeafletLookupsUnderLongTailLatency() {
+        ANVISA.latency(AnvisaStandInServer.Latency.logNormal(Duration.ofMillis(100), Duration.ofSeconds(1)));
+
+        Report report = run(new Scenario("bulas distintas, latência de cauda longa", 300, 50,
+                i -> "/api/leaflets/" + (LEAFLET_REGISTRIES + i)));
+
+        assertThat(report.count(200)).isEqualTo(300);
+        assertThat(ANVISA.leafletCalls()).isEqualTo(300);
+    }
+
+    @Test
+    void medicineLookupsRecoverFromErrorsAndThrottleBursts() {
+        ANVISA.latency(AnvisaStandInServer.Latency.uniform(Duration.ofMillis(20), Duration.ofMillis(80)))
+                .errorRate(0.05)
+                .throttleBursts(Duration.ofSeconds(1), Duration.ofMillis(250));
+
+        Report report = run(new Scenario("medicamentos com 5% de 503 e 429 em 1/4 do tempo", 200, 20,
+                i -> "/api/medicines/" + (MEDICINE_REGISTRIES + i)));
+
+        // Os retries com backoff saem das rajadas; só falha quem esgota as tentativas
+        assertThat(report.count(200)).isGreaterThanOrEqualTo(190);
+        assertThat(report.statuses().keySet()).isSubsetOf(200, 500);
+        // Uma chamada bem-sucedida por medicamento atendido, além das que falharam
+        assertThat(ANVISA.searchCalls())
+                .isEqualTo(report.count(200) + ANVISA.failedCalls() + ANVISA.throttledCalls());
+    }
+
+    private Report run(Scenario scenario) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long[] latencies = new long[scenario.requests()];
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < scenario.concurrency(); worker++) {
+                workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < scenario.requests()) {
+                        HttpRequest request = HttpRequest.newBuilder(
+                                        URI.create("http://localhost:" + port + scenario.path().apply(index)))
+                                .timeout(Duration.ofMinutes(1))
+                                .GET()
+                                .build();
+
+                        long sent = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies[index] = System.nanoTime() - sent;
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        Report report = new Report(elapsed, latencies, statusCounts);
+
+        log.info("[{}] {} requisições, {} concorrentes, em {} ms: {} req/s | "
+                        + "p50 {} ms, p90 {} ms, p99 {} ms, máx {} ms | status {} | "
+                        + "Anvisa: {} buscas, {} bulas, {} respostas 503, {} respostas 429",
+                scenario.name(), scenario.requests(), scenario.concurrency(), elapsed.toMillis(),
+                String.format("%.1f", scenario.requests() * 1000.0 / Math.max(1, elapsed.toMillis())),
+                report.percentileMillis(50), report.percentileMillis(90), report.percentileMillis(99),
+                report.percentileMillis(100), statusCounts,
+                ANVISA.searchCalls(), ANVISA.leafletCalls(), ANVISA.failedCalls(), ANVISA.throttledCalls());
+
+        assertThat(statusCounts.values().stream().mapToLong(Long::longValue).sum())
+                .as("respostas recebidas")
+                .isEqualTo(scenario.requests());
+        return report;
+    }
+
+    /**
+     * @param path Caminho da requisição de índice i
+     */
+    private record Scenario(String name, int requests, int concurrency, IntFunction<String> path) {
+    }
+
+    private record Report(Duration elapsed, long[] latencies, Map<Integer, Long> statuses) {
+
+        Report {
+            latencies = latencies.clone();
+            Arrays.sort(latencies);
+        }
+
+        long count(int status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+        long percentileMillis(int percentile) {
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return Duration.ofNanos(latencies[Math.max(0, index)]).toMillis();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.miletoalmeida.leafletapi.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor local no lugar da API da Anvisa, para testes de carga sem rede.
+ *
+ * Responde às rotas de busca e de bulário com as respostas gravadas em
+ * {@code fixtures/anvisa}. Uma busca por número de registro devolve o primeiro item
+ * gravado com aquele número, para que cada registro pareça um medicamento distinto.
+ *
+ * Cada resposta espera um tempo sorteado de {@link Latency}; uma fração das requisições
+ * falha com 503 ({@link #errorRate(double)}) e, em rajadas periódicas, todas recebem 429
+ * ({@link #throttleBursts(Duration, Duration)}). As chamadas recebidas são contadas por rota.
+ *
+ * Também pode ser iniciado sozinho, com a aplicação apontando para ele:
+ * {@code --leafletapi.anvisa.base-url=http://localhost:8089}.
+ */
+@Slf4j
+public final class AnvisaStandInServer implements AutoCloseable {
+
+    private static final String FIXTURES = "/fixtures/anvisa/";
+    private static final String SEARCH_FIXTURE = "consulta-medicamentos-dipirona.json";
+    private static final String LEAFLET_FIXTURE = "bulario-dipirona.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] searchPage;
+    private final byte[] leaflet;
+    private final JsonNode recordedMedicine;
+
+    private volatile Latency latency = Latency.fixed(Duration.ZERO);
+    private volatile double errorRate;
+    private volatile Duration burstPeriod;
+    private volatile Duration burstLength;
+    private volatile long startNanos = System.nanoTime();
+
+    private final LongAdder searchCalls = new LongAdder();
+    private final LongAdder leafletCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder throttledCalls = new LongAdder();
+
+    private DisposableServer server;
+
+    public AnvisaStandInServer() {
+        this.searchPage = fixture(SEARCH_FIXTURE);
+        this.leaflet = fixture(LEAFLET_FIXTURE);
+        try {
+            this.recordedMedicine = objectMapper.readTree(searchPage).path("content").path(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param port Porta local; 0 escolhe uma livre
+     */
+    public AnvisaStandInServer start(int port) {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(port)
+                .route(routes -> routes
+                        .post(AnvisaScrapingService.SEARCH_PATH, (request, response) -> {
+                            searchCalls.increment();
+                            return reply(request, response, this::searchResponse);
+                        })
+                        .post(AnvisaScrapingService.LEAFLET_PATH, (request, response) -> {
+                            leafletCalls.increment();
+                            return reply(request, response, body -> leaflet);
+                        }))
+                .bindNow();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    public AnvisaStandInServer latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Fração das requisições, fora das rajadas de 429, respondidas com 503.
+     */
+    public AnvisaStandInServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Responde 429 a todas as requisições durante {@code length} ao fim de cada {@code period},
+     * contado a partir de {@link #reset()}.
+     */
+    public AnvisaStandInServer throttleBursts(Duration period, Duration length) {
+        this.burstPeriod = period;
+        this.burstLength = length;
+        return this;
+    }
+
+    /**
+     * Zera os contadores e volta a respostas imediatas, sem erros nem rajadas.
+     */
+    public AnvisaStandInServer reset() {
+        latency = Latency.fixed(Duration.ZERO);
+        errorRate = 0;
+        burstPeriod = null;
+        burstLength = null;
+        startNanos = System.nanoTime();
+        searchCalls.reset();
+        leafletCalls.reset();
+        failedCalls.reset();
+        throttledCalls.reset();
+        return this;
+    }
+
+    public long searchCalls() {
+        return searchCalls.sum();
+    }
+
+    public long leafletCalls() {
+        return leafletCalls.sum();
+    }
+
+    public long failedCalls() {
+        return failedCalls.sum();
+    }
+
+    public long throttledCalls() {
+        return throttledCalls.sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Mono<Void> reply(HttpServerRequest request, HttpServerResponse response, Responder responder) {
+        Duration delay = latency.next();
+
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("")
+                .delayElement(delay)
+                .flatMap(body -> {
+                    if (inThrottleBurst()) {
+                        throttledCalls.increment();
+                        return Mono.from(response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaderNames.RETRY_AFTER, "1")
+                                .send());
+                    }
+                    if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                        failedCalls.increment();
+                        return Mono.from(response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send());
+                    }
+                    return Mono.from(response.status(HttpResponseStatus.OK)
+                            .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendByteArray(Mono.just(responder.respond(body))));
+                });
+    }
+
+    private boolean inThrottleBurst() {
+        Duration period = burstPeriod;
+        Duration length = burstLength;
+        if (period == null || length == null) {
+            return false;
+        }
+        long elapsed = (System.nanoTime() - startNanos) % period.toNanos();
+        return elapsed >= period.minus(length).toNanos();
+    }
+
+    private byte[] searchResponse(String body) {
+        String query = readTree(body).path("filter").path("nome").asText();
+        if (query.isEmpty() || !query.chars().allMatch(Character::isDigit)) {
+            return searchPage;
+        }
+
+        ObjectNode medicine = recordedMedicine.deepCopy();
+        medicine.put("numeroRegistro", query);
+
+        ObjectNode page = objectMapper.createObjectNode();
+        page.putArray("content").add(medicine);
+        page.put("totalElements", 1);
+        page.put("totalPages", 1);
+        page.put("last", true);
+        return page.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body.isEmpty() ? "{}" : body);
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private static byte[] fixture(String name) {
+        try (InputStream in = AnvisaStandInServer.class.getResourceAsStream(FIXTURES + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture não encontrada: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Inicia o servidor na porta indicada (8089 por padrão) até o processo ser encerrado.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        try (AnvisaStandInServer server = new AnvisaStandInServer().start(port)) {
+            server.latency(Latency.logNormal(Duration.ofMillis(150), Duration.ofMillis(1500)));
+            log.info("Anvisa local em {}", server.baseUrl());
+            server.server.onDispose().block();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        byte[] respond(String requestBody);
+    }
+
+    /**
+     * Distribuição do tempo de resposta.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration next();
+
+        static Latency fixed(Duration latency) {
+            return () -> latency;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(min.toNanos(), max.toNanos() + 1));
+        }
+
+        /**
+         * Cauda longa, como a de uma API pública: metade das respostas abaixo de {@code median}
+         * e 99% abaixo de {@code p99}.
+         */
+        static Latency logNormal(Duration median, Duration p99) {
+            // 2,326 é o quantil 99% da normal padrão
+            double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.326;
+            double mu = Math.log(median.toNanos());
+            return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+}
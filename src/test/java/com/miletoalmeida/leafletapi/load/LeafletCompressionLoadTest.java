@@ -0,0 +1,86 @@
+package com.miletoalmeida.leafletapi.load;
+
+import com.miletoalmeida.leafletapi.util.CompressionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o armazenamento e o custo de CPU por resposta de uma bula grande.
+ *
+ * "Recomprimir" reproduz o caminho antigo: o texto sai do banco e o servidor comprime
+ * o corpo a cada requisição. "Pré-comprimido" envia os bytes gravados na ingestão.
+ */
+@Slf4j
+@Tag("load")
+class LeafletCompressionLoadTest {
+
+    private static final int REQUESTS = 500;
+    private static final int WARMUP = 100;
+
+    @Test
+    void storedGzipIsSmallerAndCheaperToServe() throws IOException {
+        String leaflet = syntheticLeaflet(400);
+        byte[] raw = leaflet.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = CompressionUtils.gzip(leaflet);
+
+        double ratio = stored.length / (double) raw.length;
+        log.info("Bula: {} bytes em texto, {} bytes em gzip ({}%)",
+                raw.length, stored.length, String.format("%.1f", ratio * 100));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += recompress(leaflet).length;
+        }
+
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            sink += recompress(leaflet).length;
+        }
+        long recompressNanos = (threads.getCurrentThreadCpuTime() - start) / REQUESTS;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            // O corpo pré-comprimido só é copiado para o buffer da resposta
+            ByteArrayOutputStream body = new ByteArrayOutputStream(stored.length);
+            body.write(stored);
+            sink += body.size();
+        }
+        long precompressedNanos = (threads.getCurrentThreadCpuTime() - start) / REQUESTS;
+
+        log.info("CPU por resposta: recomprimir {} us, pré-comprimido {} us ({})",
+                recompressNanos / 1000, precompressedNanos / 1000, sink);
+
+        assertThat(ratio).isLessThan(0.5);
+        assertThat(precompressedNanos).isLessThan(recompressNanos);
+    }
+
+    private static byte[] recompress(String leaflet) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+            gzip.write(leaflet.getBytes(StandardCharsets.UTF_8));
+        }
+        return body.toByteArray();
+    }
+
+    private static String syntheticLeaflet(int paragraphs) {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = 0; i < paragraphs; i++) {
+            html.append("<h2>").append(i % 9 + 1).append(". SEÇÃO ").append(i).append("</h2>")
+                    .append("<p>Este medicamento é indicado para o tratamento de dor e febre. ")
+                    .append("Informe ao seu médico ou cirurgião-dentista o aparecimento de reações indesejáveis. ")
+                    .append("Dose máxima diária: ").append(i * 7 % 1000).append(" mg.</p>");
+        }
+        return html.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.miletoalmeida.leafletapi.load;
+
+import com.miletoalmeida.leafletapi.service.scraping.LeafletHtmlSanitizer;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara vazão e memória alocada na limpeza de uma bula de ~500 KB.
+ *
+ * "Jsoup" reproduz o caminho antigo: monta o DOM, remove scripts e estilos e serializa
+ * o body. "Sanitizador" percorre o texto uma vez com o {@link LeafletHtmlSanitizer}.
+ */
+@Slf4j
+@Tag("load")
+class LeafletHtmlSanitizerLoadTest {
+
+    private static final int TARGET_SIZE = 500_000;
+    private static final int ITERATIONS = 50;
+
+    @Test
+    void sanitizerIsFasterAndAllocatesLessThanJsoupDom() throws IOException {
+        String html = largeLeaflet();
+
+        Measurement jsoup = measure(html, LeafletHtmlSanitizerLoadTest::jsoupClean);
+        Measurement sanitizer = measure(html, LeafletHtmlSanitizer::sanitize);
+
+        log.info("Bula de {} KB: Jsoup {} MB/s e {} KB alocados, sanitizador {} MB/s e {} KB alocados",
+                html.length() / 1024,
+                String.format("%.1f", jsoup.megabytesPerSecond()), jsoup.allocatedBytes() / 1024,
+                String.format("%.1f", sanitizer.megabytesPerSecond()), sanitizer.allocatedBytes() / 1024);
+
+        assertThat(sanitizer.megabytesPerSecond()).isGreaterThan(jsoup.megabytesPerSecond());
+        assertThat(sanitizer.allocatedBytes()).isLessThan(jsoup.allocatedBytes());
+    }
+
+    private static Measurement measure(String html, UnaryOperator<String> clean) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += clean.apply(html).length();
+        }
+
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += clean.apply(html).length();
+        }
+        long nanos = (System.nanoTime() - start) / ITERATIONS;
+        allocated = (threads.getCurrentThreadAllocatedBytes() - allocated) / ITERATIONS;
+
+        assertThat(sink).isPositive();
+        return new Measurement(html.length() / 1e6 / (nanos / 1e9), allocated);
+    }
+
+    private static String jsoupClean(String html) {
+        Document doc = Jsoup.parse(html);
+        doc.select("script, style").remove();
+        return doc.body().html();
+    }
+
+    // Repete o corpo de uma bula real até o tamanho de uma bula profissional extensa
+    private static String largeLeaflet() throws IOException {
+        String sample;
+        try (InputStream in = LeafletHtmlSanitizerLoadTest.class
+                .getResourceAsStream("/fixtures/anvisa/bula-paciente-dipirona.html")) {
+            sample = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String body = sample.substring(sample.indexOf("<body"), sample.indexOf("</body>"));
+
+        StringBuilder html = new StringBuilder("<html><head><style>p { margin: 0; }</style></head>");
+        while (html.length() < TARGET_SIZE) {
+            html.append(body);
+        }
+        return html.append("</html>").toString();
+    }
+
+    private record Measurement(double megabytesPerSecond, long allocatedBytes) {
+    }
+}
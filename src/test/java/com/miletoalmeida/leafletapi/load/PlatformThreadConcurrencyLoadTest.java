@@ -0,0 +1,22 @@
+package com.miletoalmeida.leafletapi.load;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Linha de base: requisições em threads de plataforma ficam limitadas ao tamanho do pool do Tomcat.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadConcurrencyLoadTest extends AbstractConcurrencyCeilingLoadTest {
+
+    @Test
+    void concurrentLookupsAreBoundByTomcatPool() {
+        Duration elapsed = runConcurrentLookups();
+
+        assertThat(elapsed).isGreaterThanOrEqualTo(PLATFORM_CEILING.multipliedBy(8).dividedBy(10));
+    }
+}
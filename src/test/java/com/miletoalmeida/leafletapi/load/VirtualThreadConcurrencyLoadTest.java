@@ -0,0 +1,64 @@
+package com.miletoalmeida.leafletapi.load;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Com threads virtuais o bloqueio na Anvisa não ocupa threads do pool, então o teto de
+ * {@link PlatformThreadConcurrencyLoadTest} desaparece.
+ *
+ * Também registra eventos {@code jdk.VirtualThreadPinned} durante a carga e falha se algum
+ * deles tiver origem no código da aplicação.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadConcurrencyLoadTest extends AbstractConcurrencyCeilingLoadTest {
+
+    private static final String APPLICATION_PACKAGE = "com.miletoalmeida.leafletapi";
+
+    @Test
+    void concurrentLookupsAreNotBoundByTomcatPool() {
+        List<String> pinnedInApplication = new CopyOnWriteArrayList<>();
+        Duration elapsed;
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(Duration.ofMillis(20));
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                String applicationFrame = applicationFrame(event);
+                if (applicationFrame != null) {
+                    pinnedInApplication.add(applicationFrame);
+                }
+            });
+            recording.startAsync();
+
+            elapsed = runConcurrentLookups();
+
+            recording.stop();
+        }
+
+        assertThat(elapsed).isLessThan(PLATFORM_CEILING.dividedBy(2));
+        assertThat(pinnedInApplication).as("threads virtuais presas em código da aplicação").isEmpty();
+    }
+
+    private static String applicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return null;
+        }
+
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return null;
+    }
+}
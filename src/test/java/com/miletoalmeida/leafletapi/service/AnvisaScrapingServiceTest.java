@@ -1,4 +1,192 @@
 package com.miletoalmeida.leafletapi.service;
 
-public class AnvisaScrapingServiceTest {
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.dto.LeafletDTO;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaRequestPacer;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaResponseDecoder;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaSearchPage;
+import com.miletoalmeida.leafletapi.service.scraping.UserAgentRotator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Decodificação das respostas da Anvisa a partir de buffers pequenos, que quebram
+ * tokens, números e caracteres UTF-8 de vários bytes entre um buffer e outro.
+ */
+class AnvisaScrapingServiceTest {
+
+    private static final int CHUNK_SIZE = 7;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+    private final List<ByteBuf> sentBuffers = new ArrayList<>();
+    private final AnvisaProperties properties = new AnvisaProperties();
+
+    @Test
+    void decodesSearchPageAcrossChunkBoundaries() {
+        String json = """
+                {"content": [
+                  {"numeroRegistro": "101230001", "nomeProduto": "DIPIRONA SÓDICA", "razaoSocial": "Laboratório Ação",
+                   "principioAtivo": "dipirona monoidratada", "classesTerapeuticas": ["ANALGÉSICOS"],
+                   "categoriaRegulatoria": null, "numeroProcesso": 2535100012345, "cnpj": "12345678000199",
+                   "extra": {"nested": {"numeroRegistro": "ignorado"}}},
+                  {"numeroRegistro": "101230002", "nomeProduto": "PARACETAMOL"}
+                 ],
+                 "pageable": {"content": [{"numeroRegistro": "ignorado"}]},
+                 "totalElements": 42, "totalPages": "3", "last": false}
+                """;
+
+        AnvisaSearchPage page = service(json).searchMedicinesPage("dipirona", 2, 20).block();
+
+        assertThat(page).isNotNull();
+        assertThat(page.getPage()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(42);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+        assertThat(page.isLast()).isFalse();
+        assertThat(page.getContent()).hasSize(2);
+
+        MedicineDTO first = page.getContent().get(0);
+        assertThat(first.getRegistryNumber()).isEqualTo("101230001");
+        assertThat(first.getProductName()).isEqualTo("DIPIRONA SÓDICA");
+        assertThat(first.getCompany()).isEqualTo("Laboratório Ação");
+        assertThat(first.getActiveIngredient()).isEqualTo("dipirona monoidratada");
+        assertThat(first.getTherapeuticClass()).isEmpty();
+        assertThat(first.getRegulatoryType()).isEmpty();
+        assertThat(first.getProcessNumber()).isEqualTo("2535100012345");
+        assertThat(first.getCnpj()).isEqualTo("12345678000199");
+        assertThat(first.getLeafletUrl()).endsWith("#/medicamento/101230001");
+
+        MedicineDTO second = page.getContent().get(1);
+        assertThat(second.getProductName()).isEqualTo("PARACETAMOL");
+        assertThat(second.getCompany()).isEmpty();
+
+        assertAllBuffersReleased();
+    }
+
+    @Test
+    void searchPageWithoutMetadataEndsOnIncompletePage() {
+        AnvisaSearchPage page = service("{\"content\": [{\"numeroRegistro\": \"1\"}]}")
+                .searchMedicinesPage("x", 1, 20).block();
+
+        assertThat(page).isNotNull();
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getTotalPages()).isEqualTo(1);
+        assertThat(page.isLast()).isTrue();
+    }
+
+    @Test
+    void decodesFirstLeafletAndCleansHtml() {
+        String json = """
+                {"content": [
+                  {"textoRotulagem": "<p>Informações ao paciente</p><script>alert(1)</script>",
+                   "textoBula": "<p>Posologia: 500 mg</p>"},
+                  {"textoRotulagem": "<p>segunda bula</p>"}
+                ]}
+                """;
+
+        LeafletDTO leaflet = service(json).getLeaflet("101230001");
+
+        assertThat(leaflet.getPatientLeaflet()).contains("Informações ao paciente").doesNotContain("script");
+        assertThat(leaflet.getProfessionalLeaflet()).contains("Posologia: 500 mg");
+        assertAllBuffersReleased();
+    }
+
+    @Test
+    void leafletWithoutProfessionalTextLeavesItUnset() {
+        LeafletDTO leaflet = service("{\"content\": [{\"textoRotulagem\": null}]}").getLeaflet("1");
+
+        assertThat(leaflet.getPatientLeaflet()).isEmpty();
+        assertThat(leaflet.getProfessionalLeaflet()).isNull();
+    }
+
+    @Test
+    void emptyBodyIsInvalidResponse() {
+        assertThatThrownBy(() -> service("").getLeaflet("1"))
+                .isInstanceOf(ScrapingException.class)
+                .extracting("errorType")
+                .isEqualTo(ScrapingException.ScrapingErrorType.INVALID_RESPONSE);
+    }
+
+    @Test
+    void malformedJsonIsParsingErrorAndReleasesBuffers() {
+        assertThatThrownBy(() -> service("{\"content\": [{\"textoBula\": \"abc\"}").getLeaflet("1"))
+                .isInstanceOf(ScrapingException.class)
+                .extracting("errorType")
+                .isEqualTo(ScrapingException.ScrapingErrorType.PARSING_ERROR);
+
+        assertAllBuffersReleased();
+    }
+
+    @Test
+    void responseOverSizeLimitIsRejected() {
+        properties.setMaxResponseSize(DataSize.ofBytes(64));
+        String json = "{\"content\": [{\"textoBula\": \"" + "x".repeat(1000) + "\"}]}";
+
+        assertThatThrownBy(() -> service(json).getLeaflet("1"))
+                .isInstanceOf(ScrapingException.class)
+                .extracting("errorType")
+                .isEqualTo(ScrapingException.ScrapingErrorType.INVALID_RESPONSE);
+
+        assertAllBuffersReleased();
+    }
+
+    private AnvisaScrapingService service(String json) {
+        properties.getPacing().setMinInterval(Duration.ZERO);
+        properties.getPacing().setJitter(0);
+
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(chunks(json.getBytes(StandardCharsets.UTF_8)))
+                        .build()))
+                .build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new AnvisaScrapingService(
+                webClient,
+                new UserAgentRotator(),
+                objectMapper,
+                new AnvisaRequestPacer(properties, new SimpleMeterRegistry()),
+                new AnvisaResponseDecoder(objectMapper, properties),
+                properties);
+    }
+
+    private Flux<DataBuffer> chunks(byte[] body) {
+        return Flux.range(0, (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(index -> {
+                    byte[] chunk = Arrays.copyOfRange(body, index * CHUNK_SIZE,
+                            Math.min(body.length, (index + 1) * CHUNK_SIZE));
+                    DataBuffer buffer = bufferFactory.wrap(bufferFactory.getByteBufAllocator().buffer().writeBytes(chunk));
+                    sentBuffers.add(NettyDataBufferFactory.toByteBuf(buffer));
+                    return buffer;
+                });
+    }
+
+    private void assertAllBuffersReleased() {
+        assertThat(sentBuffers).isNotEmpty().allSatisfy(buffer -> assertThat(buffer.refCnt()).isZero());
+    }
 }
@@ -0,0 +1,115 @@
+package com.miletoalmeida.leafletapi.service;
+
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.exception.ScrapingException;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import com.miletoalmeida.leafletapi.service.scraping.AnvisaScrapingService;
+import com.miletoalmeida.leafletapi.service.search.MedicineSearchIndex;
+import com.miletoalmeida.leafletapi.service.search.MedicineSuggestIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Busca fuzzy, que responde só com o catálogo local tolerando erros de digitação, e
+ * propagação das falhas da Anvisa na busca paginada.
+ */
+class MedicineServiceTest {
+
+    private final AnvisaScrapingService anvisaScrapingService = mock(AnvisaScrapingService.class);
+    private final MedicineRepository medicineRepository = mock(MedicineRepository.class);
+    private final RefreshAheadService refreshAheadService = mock(RefreshAheadService.class);
+    private MedicineService service;
+
+    @BeforeEach
+    void setUp() {
+        when(refreshAheadService.isServable(any())).thenReturn(true);
+        when(medicineRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        SearchIndexProperties properties = new SearchIndexProperties();
+        MedicineSuggestIndex suggestIndex = new MedicineSuggestIndex(properties);
+        MedicineSearchIndex searchIndex = new MedicineSearchIndex(medicineRepository, refreshAheadService,
+                properties, suggestIndex, new SimpleMeterRegistry());
+        searchIndex.index(List.of(
+                medicine("1", "DIPIRONA SÓDICA", "dipirona monoidratada"),
+                medicine("2", "DIPYRONA GOTAS", "dipirona monoidratada"),
+                medicine("3", "AMOXICILINA", "amoxicilina tri-hidratada"),
+                medicine("4", "AMPICILINA", "ampicilina sódica")));
+        searchIndex.rebuild();
+
+        service = new MedicineService(anvisaScrapingService, medicineRepository,
+                new RequestCoalescingService(new SimpleMeterRegistry()), refreshAheadService,
+                new ConcurrentMapCacheManager(), new AnvisaProperties(), searchIndex, suggestIndex);
+    }
+
+    @Test
+    void typosAreMatchedThroughVocabulary() {
+        assertThat(registryNumbers(service.searchMedicinesFuzzy("dipirna sodca"))).containsExactly("1");
+        assertThat(registryNumbers(service.searchMedicinesFuzzy("amoxicilna"))).containsExactly("3");
+    }
+
+    @Test
+    void closerMatchesComeFirst() {
+        // "dipirona" casa com o produto 1 sem edições e com "dipyrona" a uma edição
+        assertThat(registryNumbers(service.searchMedicinesFuzzy("dipirona"))).containsExactly("1", "2");
+    }
+
+    @Test
+    void shortTermsRequireExactPrefix() {
+        assertThat(service.searchMedicinesFuzzy("amp")).extracting(MedicineDTO::getRegistryNumber).containsExactly("4");
+        assertThat(service.searchMedicinesFuzzy("anp")).isEmpty();
+    }
+
+    @Test
+    void nothingCloseReturnsEmptyWithoutCallingAnvisa() {
+        assertThat(service.searchMedicinesFuzzy("paracetamol")).isEmpty();
+        verifyNoInteractions(anvisaScrapingService);
+    }
+
+    @Test
+    void invalidQueryIsRejected() {
+        assertThatThrownBy(() -> service.searchMedicinesFuzzy("di")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchMedicinesFuzzy(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pagedSearchFailureKeepsScrapingException() {
+        ScrapingException failure = new ScrapingException("Anvisa indisponível", null,
+                ScrapingException.ScrapingErrorType.SERVICE_UNAVAILABLE);
+        when(anvisaScrapingService.searchMedicinesPage("dipirona", 1, 10)).thenReturn(Mono.error(failure));
+
+        // Não chega embrulhada em Cache.ValueRetrievalException, que viraria um 500 genérico
+        assertThatThrownBy(() -> service.searchMedicines("dipirona", 0, 10)).isSameAs(failure);
+        verify(anvisaScrapingService).searchMedicinesPage("dipirona", 1, 10);
+    }
+
+    private static MedicineDTO medicine(String registryNumber, String productName, String activeIngredient) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setRegistryNumber(registryNumber);
+        medicine.setProductName(productName);
+        medicine.setActiveIngredient(activeIngredient);
+        medicine.setCacheExpiry(LocalDateTime.now().plusDays(1));
+        return medicine;
+    }
+
+    private static List<String> registryNumbers(List<MedicineDTO> medicines) {
+        return medicines.stream().map(MedicineDTO::getRegistryNumber).toList();
+    }
+}
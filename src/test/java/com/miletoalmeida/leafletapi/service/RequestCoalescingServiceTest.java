@@ -0,0 +1,227 @@
+package com.miletoalmeida.leafletapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chamadas concorrentes para a mesma chave executam o loader uma vez e recebem o mesmo
+ * resultado ou a mesma exceção; a entrada em andamento sai da tabela em qualquer desfecho.
+ */
+class RequestCoalescingServiceTest {
+
+    private static final int CALLERS = 8;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescingService service = new RequestCoalescingService(meterRegistry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsRunLoaderOnceAndShareResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Object value = new Object();
+
+        List<Future<Object>> results = callConcurrently(() -> service.execute("leaflet", "101230001", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        }));
+        awaitCoalesced("leaflet", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThat(result.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isSameAs(value);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void concurrentCallsShareLoaderException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("Anvisa indisponível");
+
+        List<Future<Object>> results = callConcurrently(() -> service.execute("leaflet", "101230001", () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw failure;
+        }));
+        awaitCoalesced("leaflet", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(() -> result.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void keysAreNormalizedAndOperationsKeptApart() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> sink = Sinks.one();
+        Supplier<Mono<String>> loader = () -> {
+            loads.incrementAndGet();
+            return sink.asMono();
+        };
+
+        CompletableFuture<String> first = service.executeMono("search", "Dipirona Sódica", loader).toFuture();
+        CompletableFuture<String> second = service.executeMono("search", "  dipirona sodica", loader).toFuture();
+        CompletableFuture<String> other = service.executeMono("medicine", "Dipirona Sódica", loader).toFuture();
+        sink.tryEmitValue("resultado");
+
+        assertThat(first.join()).isEqualTo("resultado");
+        assertThat(second.join()).isEqualTo("resultado");
+        assertThat(other.join()).isEqualTo("resultado");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void monoSubscribersShareValueAndEntryIsRemoved() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> sink = Sinks.one();
+
+        List<CompletableFuture<String>> results = subscribeMany(() -> {
+            loads.incrementAndGet();
+            return sink.asMono();
+        });
+        assertThat(inFlight()).isEqualTo(1);
+        sink.tryEmitValue("bula");
+
+        assertThat(results).allSatisfy(result -> assertThat(result.join()).isEqualTo("bula"));
+        assertThat(loads).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void monoSubscribersShareErrorAndEntryIsRemoved() {
+        Sinks.One<String> sink = Sinks.one();
+        IllegalStateException failure = new IllegalStateException("Anvisa indisponível");
+
+        List<CompletableFuture<String>> results = subscribeMany(sink::asMono);
+        sink.tryEmitError(failure);
+
+        assertThat(results).allSatisfy(result -> assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .cause().isSameAs(failure));
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void cancellingFirstSubscriberDoesNotFailOthers() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> sink = Sinks.one();
+        Supplier<Mono<String>> loader = () -> {
+            loads.incrementAndGet();
+            return sink.asMono();
+        };
+
+        Disposable owner = service.executeMono("leaflet", "101230001", loader).subscribe();
+        CompletableFuture<String> waiter = service.executeMono("leaflet", "101230001", loader).toFuture();
+        owner.dispose();
+
+        assertThat(inFlight()).isEqualTo(1);
+        assertThat(sink.currentSubscriberCount()).as("busca continua assinada").isEqualTo(1);
+        sink.tryEmitValue("bula");
+
+        assertThat(waiter.join()).isEqualTo("bula");
+        assertThat(loads).hasValue(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void loadCompletesAndEntryIsRemovedWhenEverySubscriberCancels() {
+        Sinks.One<String> sink = Sinks.one();
+
+        service.executeMono("leaflet", "101230001", sink::asMono).subscribe().dispose();
+        assertThat(inFlight()).isEqualTo(1);
+
+        sink.tryEmitValue("bula");
+        assertThat(inFlight()).isZero();
+
+        // Sem execução em andamento, a próxima chamada executa o loader de novo
+        CompletableFuture<String> retry = service.executeMono("leaflet", "101230001", () -> Mono.just("nova")).toFuture();
+        assertThat(retry.join()).isEqualTo("nova");
+    }
+
+    @Test
+    void emptyAndThrowingLoadersCompleteAndRemoveEntry() {
+        IllegalStateException failure = new IllegalStateException("loader inválido");
+
+        assertThat(service.executeMono("leaflet", "1", Mono::<String>empty).blockOptional()).isEmpty();
+        assertThatThrownBy(() -> service.<String>executeMono("leaflet", "2", () -> {
+            throw failure;
+        }).block()).isSameAs(failure);
+        assertThat(inFlight()).isZero();
+    }
+
+    private List<Future<Object>> callConcurrently(Supplier<Object> call) {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(call::get));
+        }
+        return results;
+    }
+
+    private List<CompletableFuture<String>> subscribeMany(Supplier<Mono<String>> loader) {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(service.executeMono("leaflet", "101230001", loader).toFuture());
+        }
+        return results;
+    }
+
+    // Só libera o loader quando todos os outros chamadores já estão aguardando a mesma execução
+    private void awaitCoalesced(String operation, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (coalesced(operation) < expected) {
+            assertThat(System.nanoTime()).as("chamadas agrupadas").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double coalesced(String operation) {
+        var counter = meterRegistry.find("anvisa.requests.coalesced").tag("operation", operation).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("anvisa.requests.in_flight").gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
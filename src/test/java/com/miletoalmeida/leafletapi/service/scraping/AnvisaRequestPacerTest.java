@@ -0,0 +1,54 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.miletoalmeida.leafletapi.config.AnvisaProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnvisaRequestPacerTest {
+
+    private static final String HOST = "consultas.anvisa.gov.br";
+
+    private final AnvisaProperties properties = new AnvisaProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void throttlingBacksOffEvenFromZeroInterval() {
+        AnvisaProperties.Pacing pacing = properties.getPacing();
+        pacing.setMinInterval(Duration.ZERO);
+        pacing.setMinBackoff(Duration.ofMillis(200));
+        AnvisaRequestPacer pacer = new AnvisaRequestPacer(properties, meterRegistry);
+
+        pacer.acquire(HOST).block();
+        assertThat(intervalMillis()).isZero();
+
+        pacer.onThrottled(HOST);
+        assertThat(intervalMillis()).isEqualTo(200);
+        pacer.onThrottled(HOST);
+        assertThat(intervalMillis()).isEqualTo(400);
+
+        // Respostas normais trazem o intervalo de volta ao mínimo
+        for (int i = 0; i < 500; i++) {
+            pacer.onSuccess(HOST);
+        }
+        assertThat(intervalMillis()).isLessThan(1);
+    }
+
+    @Test
+    void backoffIsCappedAtMaxInterval() {
+        AnvisaProperties.Pacing pacing = properties.getPacing();
+        pacing.setMinBackoff(Duration.ofMinutes(1));
+        AnvisaRequestPacer pacer = new AnvisaRequestPacer(properties, meterRegistry);
+
+        pacer.onThrottled(HOST);
+
+        assertThat(intervalMillis()).isEqualTo(pacing.getMaxInterval().toMillis());
+    }
+
+    private double intervalMillis() {
+        return meterRegistry.get("anvisa.pacing.interval").tag("host", HOST).gauge().value();
+    }
+}
@@ -0,0 +1,196 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o {@link LeafletHtmlSanitizer} com a limpeza anterior, feita com o DOM do Jsoup.
+ *
+ * O sanitizador não reproduz a indentação do Jsoup nem mantém comentários, mas precisa
+ * produzir o mesmo documento: as duas saídas são relidas e comparadas na forma de
+ * {@link #canonical(String)}.
+ */
+class LeafletHtmlSanitizerTest {
+
+    private static final Pattern WHITESPACE = Pattern.compile("[ \\t\\n\\r\\f]+");
+    private static final Set<String> PREFORMATTED = Set.of("pre", "listing", "textarea");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "bula-paciente-dipirona.html",
+            "bula-profissional-amoxicilina.html",
+            "bula-paciente-losartana.html"
+    })
+    void matchesJsoupCleaningOnLeafletSamples(String fixture) throws IOException {
+        assertEquivalentToJsoup(fixture(fixture));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<p>Dose</p>",
+            "texto solto   com\n\n espaços",
+            "<P CLASS=\"x\">Dose &lt; 5 mg</P>",
+            "<p>crianças < 2 anos e idosos <= 65</p>",
+            "<p title='a > b' data-x=\"<p>\">atributos com '>'</p>",
+            "<p>a<script>if (a < b) { x('</p>'); }</script>b</p>",
+            "<p>a<SCRIPT type=module>x</SCRIPT >b<style>p{}</style></p>",
+            "<p>a <!-- comentário --> b</p>",
+            "<p>a<!---->b<!-->c</p>",
+            "<pre>\n  linha 1\n\n    linha 2\n</pre><p>  depois  </p>",
+            "<textarea>  <b>não é tag</b>  </textarea>",
+            "<p>a<script/>alert(1)</script>b</p>",
+            "<p>a<style/>p{}</style>b</p>",
+            "<textarea/>  <b>não é tag</b>  </textarea>",
+            "<title/>Título</title><p>corpo</p>",
+            "<p>a</p><iframe src=x.html /><b>x</b>",
+            "<title>Título</title><meta charset=utf-8><p>corpo</p><title>no corpo</title>",
+            "<html><head><link rel=stylesheet href=a.css></head><body class=x><p>a</p></body></html>",
+            "<p>antes</p></body><p>depois do body</p></html>",
+            "</div></p><p>fechamentos soltos</p></br>",
+            "<table><tr><td>1</td>\n\n<td>2</td></tr></table>",
+            "<p>fim com tag aberta <b",
+            "<p>script sem fim<script>while(true){}",
+            "<ul><li>um<li>dois</ul>",
+            "<p>&nbsp;  espaço rígido &amp; entidades &eacute; &#233;</p>",
+            "<p><b>negrito</b> <i>itálico</i></p>",
+            "   ",
+            "<script>apenas script</script>"
+    })
+    void matchesJsoupCleaningOnEdgeCases(String html) {
+        assertEquivalentToJsoup(html);
+    }
+
+    @Test
+    void removesScriptsStylesCommentsAndHead() {
+        String sanitized = LeafletHtmlSanitizer.sanitize("""
+                <html><head><title>bula</title><style>p { color: red; }</style></head>
+                <body><p>Posologia<script>alert('x')</script></p><!-- rev. 2 --></body></html>
+                """);
+
+        assertThat(sanitized).isEqualTo("<p>Posologia</p>");
+    }
+
+    @Test
+    void selfClosingRawTextElementsAreEmpty() {
+        // Como no Jsoup, a barra fecha o elemento e o que vem depois é conteúdo normal
+        assertThat(LeafletHtmlSanitizer.sanitize("<p>a<script/>alert(1)</script>b</p>")).isEqualTo("<p>aalert(1)b</p>");
+        // O navegador ignoraria a barra, então o elemento mantido sai explicitamente fechado
+        assertThat(LeafletHtmlSanitizer.sanitize("<p>a</p><textarea rows=2/><b>x</b>"))
+                .isEqualTo("<p>a</p><textarea rows=2></textarea><b>x</b>");
+    }
+
+    @Test
+    void collapsesWhitespaceOutsidePreformattedText() {
+        String sanitized = LeafletHtmlSanitizer.sanitize("\r\n  <p>Tomar\r\n\t  1 comprimido</p>\n<pre>a\n  b</pre>  ");
+
+        assertThat(sanitized).isEqualTo("<p>Tomar 1 comprimido</p> <pre>a\n  b</pre>");
+    }
+
+    @Test
+    void emptyInputGivesEmptyOutput() {
+        assertThat(LeafletHtmlSanitizer.sanitize(null)).isEmpty();
+        assertThat(LeafletHtmlSanitizer.sanitize("")).isEmpty();
+    }
+
+    private static void assertEquivalentToJsoup(String html) {
+        String expected = jsoupClean(html);
+        String actual = LeafletHtmlSanitizer.sanitize(html);
+
+        assertThat(canonical(actual)).isEqualTo(canonical(expected));
+        assertThat(Jsoup.parse(actual).text()).isEqualTo(Jsoup.parse(expected).text());
+    }
+
+    // Limpeza anterior do AnvisaScrapingService
+    private static String jsoupClean(String html) {
+        Document doc = Jsoup.parse(html);
+        doc.select("script, style").remove();
+        return doc.body().html();
+    }
+
+    /**
+     * Forma canônica para comparar as duas saídas: o documento relido, sem comentários, com os
+     * espaços de cada texto reduzidos como o navegador os exibe e sem os espaços junto a
+     * blocos e quebras de linha, que o pretty print do Jsoup acrescenta ou remove conforme
+     * a versão.
+     */
+    private static String canonical(String html) {
+        Document doc = Jsoup.parse(html);
+        doc.outputSettings().prettyPrint(false);
+
+        List<Node> comments = new ArrayList<>();
+        NodeTraversor.traverse((node, depth) -> {
+            if (node instanceof Comment) {
+                comments.add(node);
+            }
+        }, doc.body());
+        comments.forEach(Node::remove);
+
+        // Relê para juntar os textos que ficaram separados pelos nós removidos
+        Document reparsed = Jsoup.parse(doc.body().html());
+        reparsed.outputSettings().prettyPrint(false);
+
+        List<TextNode> texts = new ArrayList<>();
+        NodeTraversor.traverse((node, depth) -> {
+            if (node instanceof TextNode text && !isPreformatted(text)) {
+                texts.add(text);
+            }
+        }, reparsed.body());
+
+        List<Runnable> edits = new ArrayList<>();
+        for (TextNode text : texts) {
+            String value = WHITESPACE.matcher(text.getWholeText()).replaceAll(" ");
+            if (isBlockBoundary(text.previousSibling())) {
+                value = value.stripLeading();
+            }
+            if (isBlockBoundary(text.nextSibling())) {
+                value = value.stripTrailing();
+            }
+            String normalized = value;
+            edits.add(normalized.isEmpty() ? text::remove : () -> text.text(normalized));
+        }
+        edits.forEach(Runnable::run);
+
+        return reparsed.body().html().trim();
+    }
+
+    // Tags desconhecidas, como o <o:p> do Word, também são formatadas como bloco pelo Jsoup
+    private static boolean isBlockBoundary(Node sibling) {
+        return sibling == null
+                || (sibling instanceof Element element
+                        && (element.isBlock() || element.normalName().equals("br") || !element.tag().isKnownTag()));
+    }
+
+    private static boolean isPreformatted(TextNode text) {
+        for (Element parent = (Element) text.parent(); parent != null; parent = parent.parent()) {
+            if (PREFORMATTED.contains(parent.normalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = LeafletHtmlSanitizerTest.class.getResourceAsStream("/fixtures/anvisa/" + name)) {
+            assertThat(in).as("fixture %s", name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
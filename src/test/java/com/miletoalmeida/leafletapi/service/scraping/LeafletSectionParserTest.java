@@ -0,0 +1,136 @@
+package com.miletoalmeida.leafletapi.service.scraping;
+
+import com.miletoalmeida.leafletapi.service.scraping.LeafletSectionParser.Section;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeafletSectionParserTest {
+
+    @Test
+    void patientLeafletFollowsRdcSections() throws IOException {
+        List<Section> sections = parseFixture("bula-paciente-dipirona.html");
+
+        assertThat(sections).extracting(Section::name).containsExactly(
+                "identification", "indications", "mechanism", "contraindications", "warnings", "storage",
+                "dosage", "missed-dose", "adverse-reactions", "overdose", "legal");
+
+        Map<String, Section> byName = byName(sections);
+        assertThat(byName.get("indications").title()).isEqualTo("1. PARA QUE ESTE MEDICAMENTO É INDICADO?");
+        // Subtítulos que não são da RDC ficam dentro da seção aberta
+        assertThat(byName.get("identification").text()).contains("APRESENTAÇÕES", "INFORMAÇÕES AO PACIENTE");
+        assertThat(byName.get("warnings").text()).contains("Advertências");
+        // Os títulos da RDC não se repetem no corpo das seções
+        assertThat(sections).filteredOn(section -> !section.name().equals("identification"))
+                .allSatisfy(section -> assertThat(section.html()).doesNotContain("<h1>"));
+    }
+
+    @Test
+    void professionalLeafletMapsTechnicalHeadings() throws IOException {
+        List<Section> sections = parseFixture("bula-profissional-amoxicilina.html");
+
+        assertThat(sections).extracting(Section::name).containsExactly(
+                "identification", "indications", "efficacy", "pharmacology", "contraindications", "warnings",
+                "interactions", "storage", "dosage", "adverse-reactions", "overdose", "legal");
+        assertThat(byName(sections).get("efficacy").html()).contains("<table");
+    }
+
+    @Test
+    void textBeforeFirstHeadingBelongsToIdentification() throws IOException {
+        Map<String, Section> amoxicilina = byName(parseFixture("bula-profissional-amoxicilina.html"));
+        Section identification = amoxicilina.get("identification");
+
+        // O texto antes do título abre a seção sem título; o título depois continua a mesma seção
+        assertThat(identification.title()).isNull();
+        assertThat(identification.text()).startsWith("AMOXICILINA\namoxicilina tri-hidratada\n")
+                .contains("Cápsulas de 500 mg");
+
+        Map<String, Section> losartana = byName(parseFixture("bula-paciente-losartana.html"));
+        assertThat(losartana.get("identification").text()).startsWith("losartana potássica");
+        assertThat(losartana.get("indications").title()).isEqualTo("1. PARA QUE ESTE MEDICAMENTO É INDICADO?");
+        assertThat(losartana.get("legal").text()).contains("MS 1.0789.0012");
+    }
+
+    @Test
+    void repeatedIndexHeadingsContinueOpenSection() {
+        List<Section> sections = LeafletSectionParser.parse("""
+                <p>Bula de teste</p>
+                <p>ÍNDICE</p>
+                <p>1. Indicações</p>
+                <p>2. Posologia</p>
+                <h2>I - INDICAÇÕES</h2>
+                <p>Dor e febre.</p>
+                <h2>II. Posologia e modo de usar</h2>
+                <p>1 comprimido.</p>
+                <p><b>Indicações:</b> repetir a dose se necessário.</p>
+                """);
+
+        assertThat(sections).extracting(Section::name).containsExactly("identification", "indications", "dosage");
+
+        Map<String, Section> byName = byName(sections);
+        assertThat(byName.get("identification").text()).isEqualTo("Bula de teste\nÍNDICE");
+        assertThat(byName.get("indications").title()).isEqualTo("1. Indicações");
+        assertThat(byName.get("indications").text()).isEqualTo("Dor e febre.");
+        assertThat(byName.get("dosage").text()).isEqualTo("1 comprimido.\nIndicações: repetir a dose se necessário.");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "INDICAÇÕES | indications",
+            "1. Indicações | indications",
+            "III - CONTRAINDICAÇÕES | contraindications",
+            "Contra-indicações | contraindications",
+            "iv. reações adversas | adverse-reactions",
+            "10. SUPERDOSE | overdose",
+            "O que devo saber antes de usar este medicamento? | warnings",
+            "Características Farmacológicas | pharmacology",
+            "DIZERES LEGAIS | legal"
+    })
+    void recognizesNumberedRomanAndAccentedHeadings(String text, String name) {
+        assertThat(LeafletSectionParser.headingName(text)).isEqualTo(name);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Indicações: dor e febre",
+            "Informações ao paciente",
+            "Posologia usual",
+            "1."
+    })
+    void blocksThatOnlyContainHeadingWordsAreNotHeadings(String text) {
+        assertThat(LeafletSectionParser.headingName(text)).isNull();
+    }
+
+    @Test
+    void emptyHtmlHasNoSections() {
+        assertThat(LeafletSectionParser.parse(null)).isEmpty();
+        assertThat(LeafletSectionParser.parse("  ")).isEmpty();
+        assertThat(LeafletSectionParser.parse("<h2>1. INDICAÇÕES</h2>")).isEmpty();
+    }
+
+    private static List<Section> parseFixture(String name) throws IOException {
+        return LeafletSectionParser.parse(LeafletHtmlSanitizer.sanitize(fixture(name)));
+    }
+
+    private static Map<String, Section> byName(List<Section> sections) {
+        return sections.stream().collect(Collectors.toMap(Section::name, Function.identity()));
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = LeafletSectionParserTest.class.getResourceAsStream("/fixtures/anvisa/" + name)) {
+            assertThat(in).as("fixture %s", name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
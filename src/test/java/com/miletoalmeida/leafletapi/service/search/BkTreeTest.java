@@ -0,0 +1,101 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BkTreeTest {
+
+    private static final List<String> VOCABULARY = List.of(
+            "dipirona", "dipyrona", "dipiridamol", "diclofenaco", "sodica", "potassica", "losartana",
+            "amoxicilina", "ampicilina", "paracetamol", "ibuprofeno", "sanofi", "ems", "novalgina");
+
+    @ParameterizedTest
+    @CsvSource({
+            "dipirona, dipirona, 0",
+            "dipirona, dipyrona, 1",
+            "dipirona, dipiron, 1",
+            "amoxicilina, ampicilina, 2",
+            "sodica, potassica, 5",
+            "'', ems, 3"
+    })
+    void levenshteinDistance(String a, String b, int expected) {
+        assertThat(BkTree.distance(a, b)).isEqualTo(expected);
+        assertThat(BkTree.distance(b, a)).isEqualTo(expected);
+    }
+
+    @Test
+    void findsTermsWithinDistance() {
+        BkTree tree = tree(VOCABULARY);
+
+        assertThat(tree.search("dipirna", 1)).containsOnly(Map.entry("dipirona", 1));
+        assertThat(tree.search("dipirona", 1)).containsOnly(Map.entry("dipirona", 0), Map.entry("dipyrona", 1));
+        assertThat(tree.search("amoxicilna", 2)).containsOnly(Map.entry("amoxicilina", 1));
+        assertThat(tree.search("zzzzzz", 2)).isEmpty();
+        assertThat(new BkTree().search("dipirona", 2)).isEmpty();
+    }
+
+    @Test
+    void matchesBruteForceOnRandomVocabulary() {
+        Random random = new Random(42);
+        Set<String> vocabulary = new LinkedHashSet<>(VOCABULARY);
+        while (vocabulary.size() < 500) {
+            vocabulary.add(randomTerm(random));
+        }
+        BkTree tree = tree(vocabulary);
+        tree.add("dipirona");
+
+        for (int i = 0; i < 200; i++) {
+            String query = random.nextBoolean() ? mutate(List.copyOf(vocabulary).get(random.nextInt(vocabulary.size())), random)
+                    : randomTerm(random);
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (String term : vocabulary) {
+                    int distance = BkTree.distance(query, term);
+                    if (distance <= maxDistance) {
+                        expected.put(term, distance);
+                    }
+                }
+
+                assertThat(tree.search(query, maxDistance))
+                        .as("'%s' até %d edições", query, maxDistance)
+                        .containsExactlyInAnyOrderEntriesOf(expected);
+            }
+        }
+    }
+
+    private static BkTree tree(Iterable<String> terms) {
+        BkTree tree = new BkTree();
+        terms.forEach(tree::add);
+        return tree;
+    }
+
+    private static String randomTerm(Random random) {
+        StringBuilder term = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            term.append((char) ('a' + random.nextInt(6)));
+        }
+        return term.toString();
+    }
+
+    private static String mutate(String term, Random random) {
+        StringBuilder mutated = new StringBuilder(term);
+        int position = random.nextInt(mutated.length());
+        switch (random.nextInt(3)) {
+            case 0 -> mutated.deleteCharAt(position);
+            case 1 -> mutated.setCharAt(position, (char) ('a' + random.nextInt(26)));
+            default -> mutated.insert(position, (char) ('a' + random.nextInt(26)));
+        }
+        return mutated.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import com.miletoalmeida.leafletapi.dto.MedicineDTO;
+import com.miletoalmeida.leafletapi.repository.MedicineRepository;
+import com.miletoalmeida.leafletapi.service.RefreshAheadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MedicineSearchIndexTest {
+
+    private static final LocalDateTime VALID = LocalDateTime.now().plusDays(1);
+    private static final LocalDateTime EXPIRED = LocalDateTime.now().minusYears(1);
+
+    private final SearchIndexProperties properties = new SearchIndexProperties();
+    private final MedicineRepository medicineRepository = mock(MedicineRepository.class);
+    private final RefreshAheadService refreshAheadService = mock(RefreshAheadService.class);
+    private MedicineSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMinLocalResults(2);
+        when(medicineRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(refreshAheadService.isServable(any())).thenAnswer(invocation -> VALID.equals(invocation.getArgument(0)));
+
+        index = new MedicineSearchIndex(medicineRepository, refreshAheadService, properties,
+                new MedicineSuggestIndex(properties), new SimpleMeterRegistry());
+        index.index(List.of(
+                medicine("1", "DIPIRONA SÓDICA", "dipirona monoidratada", "EMS S/A"),
+                medicine("2", "NOVALGINA", "dipirona monoidratada", "Sanofi"),
+                medicine("3", "LOSARTANA POTÁSSICA", "losartana potássica", "EMS S/A"),
+                medicine("4", "DIPIRONA + CAFEÍNA", "dipirona; cafeína", "Neo Química")));
+    }
+
+    @Test
+    void everyQueryTermMustMatchByPrefixInAnyField() {
+        assertThat(registryNumbers(index.search("dipirona"))).containsExactlyInAnyOrder("1", "2", "4");
+        assertThat(registryNumbers(index.search("dipi SÓD"))).containsExactly("1");
+        assertThat(registryNumbers(index.search("losartana ems"))).containsExactly("3");
+        assertThat(index.search("dipirona losartana")).isEmpty();
+        assertThat(index.search("!!!")).isEmpty();
+    }
+
+    @Test
+    void productsNamedAfterQueryComeFirst() {
+        assertThat(registryNumbers(index.search("dipirona"))).containsExactly("4", "1", "2");
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        MedicineDTO expired = medicine("5", "DIPIRONA GOTAS", "dipirona", "Prati");
+        expired.setCacheExpiry(EXPIRED);
+        index.index(List.of(expired));
+
+        assertThat(registryNumbers(index.search("dipirona gotas"))).isEmpty();
+    }
+
+    @Test
+    void reindexReplacesTermsAndRemoveDropsDocument() {
+        index.index(List.of(medicine("2", "NOVALGINA", "metamizol", "Sanofi")));
+        assertThat(registryNumbers(index.search("dipirona"))).containsExactlyInAnyOrder("1", "4");
+        assertThat(registryNumbers(index.search("metamizol"))).containsExactly("2");
+
+        index.remove(List.of("1"));
+        assertThat(registryNumbers(index.search("dipirona"))).containsExactly("4");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void searchCoveredNeedsReadyIndexAndMinimumResults() {
+        assertThat(index.searchCovered("dipirona")).as("antes de rebuild").isEmpty();
+
+        index.rebuild();
+
+        assertThat(index.searchCovered("dipirona")).hasValueSatisfying(results -> assertThat(results).hasSize(3));
+        assertThat(index.searchCovered("novalgina")).as("um resultado, abaixo do mínimo").isEmpty();
+        assertThat(index.searchCovered("paracetamol")).isEmpty();
+    }
+
+    @Test
+    void completeCatalogAcceptsSingleResult() {
+        index.rebuild();
+        index.setCatalogComplete(true);
+
+        assertThat(index.searchCovered("novalgina")).hasValueSatisfying(results ->
+                assertThat(registryNumbers(results)).containsExactly("2"));
+        assertThat(index.searchCovered("paracetamol")).isEmpty();
+    }
+
+    @Test
+    void disabledIndexNeverCoversQuery() {
+        index.rebuild();
+        properties.setEnabled(false);
+
+        assertThat(index.searchCovered("dipirona")).isEmpty();
+        assertThat(index.searchFuzzy("dipirna")).isEmpty();
+    }
+
+    @Test
+    void fuzzySearchWaitsForReadyIndex() {
+        assertThat(index.searchFuzzy("dipirna")).as("antes de rebuild").isEmpty();
+
+        index.rebuild();
+
+        assertThat(registryNumbers(index.searchFuzzy("dipirna"))).containsExactlyInAnyOrder("1", "2", "4");
+    }
+
+    private static MedicineDTO medicine(String registryNumber, String productName, String activeIngredient, String company) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setRegistryNumber(registryNumber);
+        medicine.setProductName(productName);
+        medicine.setActiveIngredient(activeIngredient);
+        medicine.setCompany(company);
+        medicine.setCacheExpiry(VALID);
+        return medicine;
+    }
+
+    private static List<String> registryNumbers(List<MedicineDTO> medicines) {
+        return medicines.stream().map(MedicineDTO::getRegistryNumber).toList();
+    }
+}
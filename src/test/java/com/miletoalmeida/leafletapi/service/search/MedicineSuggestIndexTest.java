@@ -0,0 +1,79 @@
+package com.miletoalmeida.leafletapi.service.search;
+
+import com.miletoalmeida.leafletapi.config.SearchIndexProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MedicineSuggestIndexTest {
+
+    private final SearchIndexProperties properties = new SearchIndexProperties();
+    private MedicineSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSuggestTopK(3);
+        index = new MedicineSuggestIndex(properties);
+
+        // Popularidade inicial: número de registros com o nome
+        index.updateCatalog(List.of(
+                "Dipirona Sódica", "Dipirona Sódica", "Dipirona Sódica",
+                "Diclofenaco", "Diclofenaco",
+                "Dimenidrinato",
+                "Diazepam",
+                "Losartana"), 1);
+    }
+
+    @Test
+    void suggestionsAreOrderedByPopularityThenName() {
+        assertThat(index.suggest("di", 10)).containsExactly("Dipirona Sódica", "Diclofenaco", "Diazepam");
+        assertThat(index.suggest("dim", 10)).containsExactly("Dimenidrinato");
+        assertThat(index.suggest("DÍP", 10)).containsExactly("Dipirona Sódica");
+    }
+
+    @Test
+    void limitAndTopKCapTheResult() {
+        assertThat(index.suggest("di", 1)).containsExactly("Dipirona Sódica");
+        assertThat(index.suggest("", 10)).isEmpty();
+        assertThat(index.suggest("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void searchesRaisePopularity() {
+        index.recordSearch("dimenidrinato");
+        assertThat(index.suggest("di", 10)).containsExactly("Dipirona Sódica", "Diclofenaco", "Dimenidrinato");
+
+        // Empate com Dipirona Sódica; o nome desempata
+        index.recordSearch("DIMENIDRINATO");
+        assertThat(index.suggest("di", 10)).containsExactly("Dimenidrinato", "Dipirona Sódica", "Diclofenaco");
+    }
+
+    @Test
+    void searchForUnknownNameIsIgnored() {
+        index.recordSearch("dipirona");
+
+        assertThat(index.suggest("dipirona", 10)).containsExactly("Dipirona Sódica");
+        assertThat(index.suggest("di", 10)).containsExactly("Dipirona Sódica", "Diclofenaco", "Diazepam");
+    }
+
+    @Test
+    void removedNamesLeaveAndFreeTheirSlot() {
+        index.updateCatalog(List.of("Diclofenaco", "Diclofenaco"), -1);
+
+        assertThat(index.suggest("di", 10)).containsExactly("Dipirona Sódica", "Diazepam", "Dimenidrinato");
+        assertThat(index.suggest("dic", 10)).isEmpty();
+
+        index.updateCatalog(List.of("Dipirona Sódica"), -1);
+        assertThat(index.suggest("di", 10)).containsExactly("Dipirona Sódica", "Diazepam", "Dimenidrinato");
+    }
+
+    @Test
+    void addingRegistriesMovesNameUp() {
+        index.updateCatalog(List.of("Diazepam", "Diazepam", "Diazepam"), 1);
+
+        assertThat(index.suggest("di", 10)).containsExactly("Diazepam", "Dipirona Sódica", "Diclofenaco");
+    }
+}
@@ -0,0 +1,69 @@
+package com.miletoalmeida.leafletapi.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.text.Normalizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Dipirona  SÓDICA-500mg|dipirona sodica 500mg",
+            "AÇÃO E REAÇÃO|acao e reacao",
+            "  Losartana Potássica  |losartana potassica",
+            "Amoxicilina + Clavulanato de Potássio|amoxicilina clavulanato de potassio",
+            "EMS S/A|ems s a",
+            "Vitamina B12 (cianocobalamina)|vitamina b12 cianocobalamina",
+            "25µg|25ug",
+            "ÆSTRÖM Straße|aestrom strasse",
+            "!!!|''"
+    })
+    void foldsAccentsCaseAndPunctuation(String text, String expected) {
+        assertThat(TextNormalizer.normalize(text)).isEqualTo(expected);
+    }
+
+    @Test
+    void combiningAccentsAreDropped() {
+        String decomposed = Normalizer.normalize("Paracetamol Genérico", Normalizer.Form.NFD);
+
+        assertThat(TextNormalizer.normalize(decomposed)).isEqualTo("paracetamol generico");
+    }
+
+    @Test
+    void normalizedTextIsReturnedAsIs() {
+        String text = "dipirona sodica 500mg";
+
+        assertThat(TextNormalizer.normalize(text)).isSameAs(text);
+    }
+
+    @Test
+    void nullOrEmptyGivesEmpty() {
+        assertThat(TextNormalizer.normalize(null)).isEmpty();
+        assertThat(TextNormalizer.normalize("")).isEmpty();
+        assertThat(TextNormalizer.tokens(null)).isEmpty();
+        assertThat(TextNormalizer.collapseWhitespace(null)).isEmpty();
+    }
+
+    @Test
+    void tokensFollowTextOrder() {
+        assertThat(TextNormalizer.tokens("Ibuprofeno, 400 mg; COMPRIMIDO"))
+                .containsExactly("ibuprofeno", "400", "mg", "comprimido");
+    }
+
+    @Test
+    void cacheKeyJoinsTermsWithUnderscore() {
+        assertThat(TextNormalizer.cacheKey("search", "Dipirona Sódica")).isEqualTo("search_dipirona_sodica");
+        assertThat(TextNormalizer.cacheKey("search", "dipirona  sodica"))
+                .isEqualTo(TextNormalizer.cacheKey("search", "DIPIRONA SÓDICA"));
+    }
+
+    @Test
+    void collapseWhitespaceKeepsOtherCharacters() {
+        assertThat(TextNormalizer.collapseWhitespace("\r\n Tomar\t 1  comprimido,\n\n à noite. "))
+                .isEqualTo("Tomar 1 comprimido, à noite.");
+    }
+}